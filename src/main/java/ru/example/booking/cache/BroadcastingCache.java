@@ -0,0 +1,107 @@
+package ru.example.booking.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+public class BroadcastingCache implements Cache {
+
+    private final Cache delegate;
+
+    private final CacheInvalidationPublisher publisher;
+
+    private final List<CacheEvictionListener> evictionListeners;
+
+    private final List<CachePutListener> putListeners;
+
+    public BroadcastingCache(Cache delegate, CacheInvalidationPublisher publisher,
+                             List<CacheEvictionListener> evictionListeners, List<CachePutListener> putListeners) {
+        this.delegate = delegate;
+        this.publisher = publisher;
+        this.evictionListeners = evictionListeners;
+        this.putListeners = putListeners;
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        putListeners.forEach(listener -> listener.onPut(getName(), key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        if (existing == null) {
+            putListeners.forEach(listener -> listener.onPut(getName(), key));
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictLocally(key);
+        publisher.publishEvict(getName(), key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = delegate.evictIfPresent(key);
+        evictionListeners.forEach(listener -> listener.onEvict(getName(), key));
+        publisher.publishEvict(getName(), key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        clearLocally();
+        publisher.publishClear(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = delegate.invalidate();
+        evictionListeners.forEach(listener -> listener.onClear(getName()));
+        publisher.publishClear(getName());
+        return invalidated;
+    }
+
+    public void evictLocally(Object key) {
+        delegate.evict(key);
+        evictionListeners.forEach(listener -> listener.onEvict(getName(), key));
+    }
+
+    public void clearLocally() {
+        delegate.clear();
+        evictionListeners.forEach(listener -> listener.onClear(getName()));
+    }
+}
@@ -0,0 +1,28 @@
+package ru.example.booking.cache;
+
+import com.google.common.cache.Weigher;
+import ru.example.booking.dto.hotel.HotelResponseList;
+import ru.example.booking.dto.room.RoomResponseList;
+
+import java.util.Collection;
+import java.util.Map;
+
+public class CacheEntryWeigher implements Weigher<Object, Object> {
+
+    @Override
+    public int weigh(Object key, Object value) {
+        if (value instanceof RoomResponseList rooms) {
+            return 1 + rooms.getRooms().size();
+        }
+        if (value instanceof HotelResponseList hotels) {
+            return 1 + hotels.getHotels().size();
+        }
+        if (value instanceof Collection<?> collection) {
+            return 1 + collection.size();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return 1 + map.size();
+        }
+        return 1;
+    }
+}
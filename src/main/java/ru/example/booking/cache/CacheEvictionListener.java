@@ -0,0 +1,14 @@
+package ru.example.booking.cache;
+
+public interface CacheEvictionListener {
+
+    default void onEvict(String cacheName, Object key) {
+    }
+
+    default void onClear(String cacheName) {
+    }
+
+    // called for every value leaving the local cache: evicted, cleared, expired or replaced
+    default void onRemoval(String cacheName, Object value) {
+    }
+}
@@ -0,0 +1,41 @@
+package ru.example.booking.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CacheInvalidationEvent {
+
+    private String origin;
+
+    private Type type;
+
+    private String cacheName;
+
+    private String key;
+
+    private KeyType keyType;
+
+    private Long roomId;
+
+    private Long hotelId;
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    public enum Type {
+        EVICT, CLEAR, BOOKING_CHANGE, ROOM_CHANGE
+    }
+
+    public enum KeyType {
+        LONG, STRING
+    }
+}
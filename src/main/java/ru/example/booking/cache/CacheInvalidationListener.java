@@ -0,0 +1,66 @@
+package ru.example.booking.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationListener {
+
+    private final CacheManager cacheManager;
+
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    private final RoomFilterCacheIndex roomFilterCacheIndex;
+
+    @KafkaListener(
+            topics = "${app.kafka.cacheInvalidationTopic}",
+            groupId = "${app.kafka.kafkaGroupId}-cache-#{cacheInvalidationPublisher.instanceName}",
+            containerFactory = "concurrentKafkaListenerContainerFactory",
+            autoStartup = "${app.cache.broadcast.enable}"
+    )
+    public void listenInvalidation(@Payload CacheInvalidationEvent event) {
+        if (invalidationPublisher.isOwnEvent(event)) {
+            return;
+        }
+        log.debug("Received cache invalidation {} for {}", event.getType(), event.getCacheName());
+
+        switch (event.getType()) {
+            case EVICT -> evictLocally(event.getCacheName(), keyOf(event));
+            case CLEAR -> clearLocally(event.getCacheName());
+            case BOOKING_CHANGE -> roomFilterCacheIndex.evictBookingChangeLocally(
+                    event.getRoomId(), event.getHotelId(), event.getFrom(), event.getTo());
+            case ROOM_CHANGE -> roomFilterCacheIndex.evictRoomChangeLocally(event.getRoomId(), event.getHotelId());
+        }
+    }
+
+    private void evictLocally(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache instanceof BroadcastingCache broadcastingCache) {
+            broadcastingCache.evictLocally(key);
+        } else if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clearLocally(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache instanceof BroadcastingCache broadcastingCache) {
+            broadcastingCache.clearLocally();
+        } else if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private Object keyOf(CacheInvalidationEvent event) {
+        return event.getKeyType() == CacheInvalidationEvent.KeyType.LONG
+                ? Long.valueOf(event.getKey())
+                : event.getKey();
+    }
+}
@@ -0,0 +1,96 @@
+package ru.example.booking.cache;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Slf4j
+@Component
+public class CacheInvalidationPublisher {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    private final String topic;
+
+    private final boolean enabled;
+
+    @Getter
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Getter
+    private final String instanceName;
+
+    public CacheInvalidationPublisher(KafkaTemplate<String, Object> kafkaTemplate,
+                                      @Value("${app.kafka.cacheInvalidationTopic}") String topic,
+                                      @Value("${app.cache.broadcast.enable}") boolean enabled,
+                                      @Value("${app.cache.broadcast.instanceName}") String instanceName) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.enabled = enabled;
+        this.instanceName = instanceName == null || instanceName.isBlank() ? localHostName() : instanceName;
+    }
+
+    public void publishEvict(String cacheName, Object key) {
+        if (key instanceof Long id) {
+            publish(event(CacheInvalidationEvent.Type.EVICT, cacheName)
+                    .key(id.toString()).keyType(CacheInvalidationEvent.KeyType.LONG).build());
+        } else if (key instanceof String value) {
+            publish(event(CacheInvalidationEvent.Type.EVICT, cacheName)
+                    .key(value).keyType(CacheInvalidationEvent.KeyType.STRING).build());
+        } else {
+            publishClear(cacheName);
+        }
+    }
+
+    public void publishClear(String cacheName) {
+        publish(event(CacheInvalidationEvent.Type.CLEAR, cacheName).build());
+    }
+
+    public void publishBookingChange(Long roomId, Long hotelId, LocalDate from, LocalDate to) {
+        publish(event(CacheInvalidationEvent.Type.BOOKING_CHANGE, null)
+                .roomId(roomId).hotelId(hotelId).from(from).to(to).build());
+    }
+
+    public void publishRoomChange(Long roomId, Long hotelId) {
+        publish(event(CacheInvalidationEvent.Type.ROOM_CHANGE, null)
+                .roomId(roomId).hotelId(hotelId).build());
+    }
+
+    public boolean isOwnEvent(CacheInvalidationEvent event) {
+        return instanceId.equals(event.getOrigin());
+    }
+
+    private CacheInvalidationEvent.CacheInvalidationEventBuilder event(CacheInvalidationEvent.Type type, String cacheName) {
+        return CacheInvalidationEvent.builder()
+                .origin(instanceId)
+                .type(type)
+                .cacheName(cacheName);
+    }
+
+    private static String localHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            log.warn("Host name is not resolved, set app.cache.broadcast.instanceName for a stable consumer group", e);
+            return "localhost";
+        }
+    }
+
+    private void publish(CacheInvalidationEvent event) {
+        if (!enabled) {
+            return;
+        }
+        kafkaTemplate.send(topic, event).whenComplete((result, e) -> {
+            if (e != null) {
+                log.warn("Cache invalidation {} for {} was not published", event.getType(), event.getCacheName(), e);
+            }
+        });
+    }
+}
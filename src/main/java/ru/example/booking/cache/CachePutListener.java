@@ -0,0 +1,6 @@
+package ru.example.booking.cache;
+
+public interface CachePutListener {
+
+    void onPut(String cacheName, Object key);
+}
@@ -0,0 +1,147 @@
+package ru.example.booking.cache;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.example.booking.repository.postgres.HotelRepository;
+import ru.example.booking.repository.postgres.RoomRepository;
+import ru.example.booking.repository.postgres.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+public class ExistenceFilter {
+
+    public enum Kind {
+        USERNAME, EMAIL, HOTEL_NAME, ROOM_NAME
+    }
+
+    private final UserRepository userRepository;
+
+    private final HotelRepository hotelRepository;
+
+    private final RoomRepository roomRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+
+    private final long expectedInsertions;
+
+    private final double falsePositiveProbability;
+
+    private final Map<Kind, Counter> skippedCounters = new EnumMap<>(Kind.class);
+
+    private final Object lock = new Object();
+
+    private volatile Map<Kind, BloomFilter<CharSequence>> filters;
+
+    private List<Map.Entry<Kind, String>> recorded;
+
+    public ExistenceFilter(UserRepository userRepository, HotelRepository hotelRepository,
+                           RoomRepository roomRepository, TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.cache.existenceFilter.enable}") boolean enabled,
+                           @Value("${app.cache.existenceFilter.expectedInsertions}") long expectedInsertions,
+                           @Value("${app.cache.existenceFilter.fpp}") double falsePositiveProbability) {
+        this.userRepository = userRepository;
+        this.hotelRepository = hotelRepository;
+        this.roomRepository = roomRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        for (Kind kind : Kind.values()) {
+            skippedCounters.put(kind, Counter.builder("existence.filter.skipped")
+                    .description("Existence checks answered by the bloom filter without a query")
+                    .tag("kind", kind.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    public boolean mightContain(Kind kind, String value) {
+        if (value == null) {
+            return false;
+        }
+        var current = filters;
+        if (current == null || current.get(kind).mightContain(value)) {
+            return true;
+        }
+        skippedCounters.get(kind).increment();
+        return false;
+    }
+
+    public void put(Kind kind, String value) {
+        if (!enabled || value == null) {
+            return;
+        }
+        synchronized (lock) {
+            var current = filters;
+            if (current != null) {
+                current.get(kind).put(value);
+            }
+            if (recorded != null) {
+                recorded.add(Map.entry(kind, value));
+            }
+        }
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lock) {
+            recorded = new ArrayList<>();
+        }
+        try {
+            long startedAt = System.nanoTime();
+            Map<Kind, BloomFilter<CharSequence>> rebuilt = new EnumMap<>(Kind.class);
+            transactionTemplate.executeWithoutResult(status -> {
+                long users = userRepository.count();
+                rebuilt.put(Kind.USERNAME, load(users, userRepository.streamAllUsernames()));
+                rebuilt.put(Kind.EMAIL, load(users, userRepository.streamAllEmails()));
+                rebuilt.put(Kind.HOTEL_NAME, load(hotelRepository.count(), hotelRepository.streamAllNames()));
+                rebuilt.put(Kind.ROOM_NAME, load(roomRepository.count(), roomRepository.streamAllNames()));
+            });
+
+            synchronized (lock) {
+                recorded.forEach(entry -> rebuilt.get(entry.getKey()).put(entry.getValue()));
+                filters = rebuilt;
+            }
+            log.info("Existence filters are built in {} ms", (System.nanoTime() - startedAt) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Existence filters are not built, every check falls back to the database", e);
+        } finally {
+            synchronized (lock) {
+                recorded = null;
+            }
+        }
+    }
+
+    private BloomFilter<CharSequence> load(long count, Stream<String> values) {
+        BloomFilter<CharSequence> filter = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8),
+                Math.max(expectedInsertions, count * 2), falsePositiveProbability);
+        try (values) {
+            values.forEach(value -> {
+                if (value != null) {
+                    filter.put(value);
+                }
+            });
+        }
+        return filter;
+    }
+}
@@ -0,0 +1,34 @@
+package ru.example.booking.cache;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import ru.example.booking.dao.postrgres.Hotel;
+import ru.example.booking.dao.postrgres.Room;
+import ru.example.booking.dao.postrgres.User;
+
+@Component
+@RequiredArgsConstructor
+public class ExistenceFilterEntityListener {
+
+    private final ObjectProvider<ExistenceFilter> existenceFilter;
+
+    @PrePersist
+    @PreUpdate
+    public void register(Object entity) {
+        var filter = existenceFilter.getIfAvailable();
+        if (filter == null) {
+            return;
+        }
+        if (entity instanceof User user) {
+            filter.put(ExistenceFilter.Kind.USERNAME, user.getUsername());
+            filter.put(ExistenceFilter.Kind.EMAIL, user.getEmail());
+        } else if (entity instanceof Hotel hotel) {
+            filter.put(ExistenceFilter.Kind.HOTEL_NAME, hotel.getName());
+        } else if (entity instanceof Room room) {
+            filter.put(ExistenceFilter.Kind.ROOM_NAME, room.getName());
+        }
+    }
+}
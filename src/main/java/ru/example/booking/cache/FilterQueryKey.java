@@ -0,0 +1,136 @@
+package ru.example.booking.cache;
+
+import ru.example.booking.dto.defaults.FindAllSettings;
+import ru.example.booking.dto.defaults.HotelFilter;
+import ru.example.booking.dto.defaults.RoomFilter;
+import ru.example.booking.util.LocalDatesUtil;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+public final class FilterQueryKey implements Serializable {
+
+    public static final String ROOMS = "rooms";
+
+    public static final String HOTELS = "hotels";
+
+    public static final String ID = "id";
+
+    public static final String HOTEL_ID = "hotelId";
+
+    public static final String CHECK_IN = "checkInDate";
+
+    public static final String CHECK_OUT = "checkOutDate";
+
+    private final String scope;
+
+    private final int pageNum;
+
+    private final int pageSize;
+
+    private final String[] fields;
+
+    private final Object[] values;
+
+    private final int hash;
+
+    private FilterQueryKey(String scope, int pageNum, int pageSize, Map<String, Object> sortedValues) {
+        this.scope = scope;
+        this.pageNum = pageNum;
+        this.pageSize = pageSize;
+        this.fields = sortedValues.keySet().toArray(new String[0]);
+        this.values = sortedValues.values().toArray();
+
+        int result = Objects.hash(scope, pageNum, pageSize);
+        result = 31 * result + Arrays.hashCode(fields);
+        this.hash = 31 * result + Arrays.hashCode(values);
+    }
+
+    public static FilterQueryKey forRooms(FindAllSettings settings, String datePattern) {
+        RoomFilter filter = settings.getRoomFilter();
+        Map<String, Object> values = new TreeMap<>();
+        put(values, ID, filter.getId());
+        put(values, "description", filter.getDescription());
+        put(values, "minPrice", normalize(filter.getMinPrice()));
+        put(values, "maxPrice", normalize(filter.getMaxPrice()));
+        put(values, "capacity", filter.getCapacity());
+        put(values, HOTEL_ID, filter.getHotelId());
+        if (filter.getCheckInDate() != null && filter.getCheckOutDate() != null) {
+            put(values, CHECK_IN, LocalDatesUtil.strDateToLocalDate(filter.getCheckInDate(), datePattern));
+            put(values, CHECK_OUT, LocalDatesUtil.strDateToLocalDate(filter.getCheckOutDate(), datePattern));
+        }
+        return new FilterQueryKey(ROOMS, settings.getPageNum(), settings.getPageSize(), values);
+    }
+
+    public static FilterQueryKey forHotels(FindAllSettings settings) {
+        HotelFilter filter = settings.getHotelFilter();
+        Map<String, Object> values = new TreeMap<>();
+        put(values, ID, filter.getId());
+        put(values, "name", filter.getName());
+        put(values, "headline", filter.getHeadline());
+        put(values, "city", filter.getCity());
+        put(values, "address", filter.getAddress());
+        put(values, "distance", filter.getDistance());
+        put(values, "rating", filter.getRating());
+        put(values, "numberOfRatings", filter.getNumberOfRatings());
+        return new FilterQueryKey(HOTELS, settings.getPageNum(), settings.getPageSize(), values);
+    }
+
+    public <T> T get(String field, Class<T> type) {
+        int position = Arrays.binarySearch(fields, field);
+        return position < 0 ? null : type.cast(values[position]);
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    private static void put(Map<String, Object> values, String field, Object value) {
+        if (value != null) {
+            values.put(field, value);
+        }
+    }
+
+    private static BigDecimal normalize(BigDecimal value) {
+        if (value == null) {
+            return null;
+        }
+        return value.signum() == 0 ? BigDecimal.ZERO : value.stripTrailingZeros();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FilterQueryKey that)) {
+            return false;
+        }
+        return hash == that.hash
+                && pageNum == that.pageNum
+                && pageSize == that.pageSize
+                && scope.equals(that.scope)
+                && Arrays.equals(fields, that.fields)
+                && Arrays.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(scope)
+                .append("(pageNum=").append(pageNum)
+                .append(", pageSize=").append(pageSize);
+        for (int i = 0; i < fields.length; i++) {
+            builder.append(", ").append(fields[i]).append('=').append(values[i]);
+        }
+        return builder.append(')').toString();
+    }
+}
@@ -0,0 +1,141 @@
+package ru.example.booking.cache;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalCause;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+public class GuavaCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+
+    private final LoadingCache<Object, Object> cache;
+
+    private final Map<Object, Callable<?>> valueLoaders = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<Callable<?>> currentValueLoader = new ThreadLocal<>();
+
+    private final Executor refreshExecutor;
+
+    public GuavaCache(String name, CacheBuilder<Object, Object> builder, boolean allowNullValues) {
+        this(name, builder, allowNullValues, null);
+    }
+
+    public GuavaCache(String name, CacheBuilder<Object, Object> builder, boolean allowNullValues,
+                      Executor refreshExecutor) {
+        this(name, builder, allowNullValues, refreshExecutor, List.of());
+    }
+
+    public GuavaCache(String name, CacheBuilder<Object, Object> builder, boolean allowNullValues,
+                      Executor refreshExecutor, List<CacheEvictionListener> evictionListeners) {
+        super(allowNullValues);
+        this.name = name;
+        this.refreshExecutor = refreshExecutor;
+        this.cache = builder
+                .removalListener(notification -> {
+                    if (notification.getCause() != RemovalCause.REPLACED) {
+                        valueLoaders.remove(notification.getKey());
+                    }
+                    evictionListeners.forEach(listener -> listener.onRemoval(name, notification.getValue()));
+                })
+                .build(new ValueLoaderCacheLoader());
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public LoadingCache<Object, Object> getNativeCache() {
+        return cache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        valueLoaders.put(key, valueLoader);
+        currentValueLoader.set(valueLoader);
+        try {
+            // a Callable passed to Guava would also reload a stale entry in this thread, the cache loader uses the pool
+            return (T) fromStoreValue(cache.get(key));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            valueLoaders.remove(key, valueLoader);
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        } finally {
+            currentValueLoader.remove();
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        cache.put(key, toStoreValue(value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        var existing = cache.asMap().putIfAbsent(key, toStoreValue(value));
+        return toValueWrapper(existing);
+    }
+
+    @Override
+    public void evict(Object key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    private class ValueLoaderCacheLoader extends CacheLoader<Object, Object> {
+
+        @Override
+        public Object load(Object key) throws Exception {
+            Callable<?> valueLoader = currentValueLoader.get();
+            if (valueLoader == null) {
+                valueLoader = valueLoaders.get(key);
+            }
+            if (valueLoader == null) {
+                throw new IllegalStateException("No value loader for key " + key + " in cache " + name);
+            }
+            return toStoreValue(valueLoader.call());
+        }
+
+        @Override
+        public ListenableFuture<Object> reload(Object key, Object oldValue) throws Exception {
+            var valueLoader = valueLoaders.get(key);
+            if (valueLoader == null) {
+                return Futures.immediateFuture(oldValue);
+            }
+            if (refreshExecutor == null) {
+                return Futures.immediateFuture(toStoreValue(valueLoader.call()));
+            }
+            var task = ListenableFutureTask.create(() -> toStoreValue(valueLoader.call()));
+            try {
+                refreshExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                return Futures.immediateFuture(oldValue);
+            }
+            return task;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package ru.example.booking.cache;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractCacheManager;
+import ru.example.booking.configuration.properties.CacheProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class GuavaCacheManager extends AbstractCacheManager implements DisposableBean {
+
+    private final CacheProperties cacheProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    private final List<CacheEvictionListener> evictionListeners;
+
+    private final List<CachePutListener> putListeners;
+
+    private final ExecutorService refreshExecutor;
+
+    public GuavaCacheManager(CacheProperties cacheProperties, MeterRegistry meterRegistry,
+                             CacheInvalidationPublisher invalidationPublisher,
+                             List<CacheEvictionListener> evictionListeners,
+                             List<CachePutListener> putListeners) {
+        this.cacheProperties = cacheProperties;
+        this.meterRegistry = meterRegistry;
+        this.invalidationPublisher = invalidationPublisher;
+        this.evictionListeners = evictionListeners;
+        this.putListeners = putListeners;
+        this.refreshExecutor = new ThreadPoolExecutor(
+                cacheProperties.getRefreshThreads(), cacheProperties.getRefreshThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(cacheProperties.getRefreshQueueCapacity()),
+                new ThreadFactoryBuilder().setNameFormat("cache-refresh-%d").setDaemon(true).build());
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        List<Cache> caches = new ArrayList<>();
+        cacheProperties.getCacheNames().forEach(name -> caches.add(createCache(name)));
+        return caches;
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createCache(name);
+    }
+
+    @Override
+    protected Cache decorateCache(Cache cache) {
+        return new BroadcastingCache(cache, invalidationPublisher, evictionListeners, putListeners);
+    }
+
+    protected Cache createCache(String name) {
+        var settings = cacheProperties.getCaches().getOrDefault(name, new CacheProperties.CacheSettings());
+        var cache = new GuavaCache(name, builder(settings), true, refreshExecutor, evictionListeners);
+        if (settings.isRecordStats()) {
+            GuavaCacheMetrics.monitor(meterRegistry, cache.getNativeCache(), name);
+        }
+        return cache;
+    }
+
+    private CacheBuilder<Object, Object> builder(CacheProperties.CacheSettings settings) {
+        var builder = CacheBuilder.newBuilder();
+        if (isPositive(settings.getExpiry())) {
+            builder.expireAfterWrite(settings.getExpiry());
+        }
+        if (isPositive(settings.getExpireAfterAccess())) {
+            builder.expireAfterAccess(settings.getExpireAfterAccess());
+        }
+        if (isPositive(settings.getRefreshAfterWrite())) {
+            builder.refreshAfterWrite(settings.getRefreshAfterWrite());
+        }
+        if (settings.getMaximumWeight() > 0) {
+            builder.maximumWeight(settings.getMaximumWeight()).weigher(new CacheEntryWeigher());
+        } else if (settings.getMaximumSize() > 0) {
+            builder.maximumSize(settings.getMaximumSize());
+        }
+        if (settings.isRecordStats()) {
+            builder.recordStats();
+        }
+        return builder;
+    }
+
+    private boolean isPositive(Duration duration) {
+        return duration != null && !duration.isZero() && !duration.isNegative();
+    }
+}
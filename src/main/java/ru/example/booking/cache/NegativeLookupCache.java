@@ -0,0 +1,49 @@
+package ru.example.booking.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.example.booking.configuration.properties.CacheProperties;
+
+@Component
+@RequiredArgsConstructor
+public class NegativeLookupCache {
+
+    public static final String ROOM_ID = "room.id";
+
+    public static final String ROOM_NAME = "room.name";
+
+    public static final String HOTEL_ID = "hotel.id";
+
+    public static final String HOTEL_NAME = "hotel.name";
+
+    private final CacheManager cacheManager;
+
+    public boolean isMissing(String type, Object value) {
+        Cache cache = cache();
+        return cache != null && cache.get(key(type, value)) != null;
+    }
+
+    public void markMissing(String type, Object value) {
+        Cache cache = cache();
+        if (cache != null) {
+            cache.put(key(type, value), Boolean.TRUE);
+        }
+    }
+
+    public void forget(String type, Object value) {
+        Cache cache = cache();
+        if (cache != null && value != null) {
+            cache.evict(key(type, value));
+        }
+    }
+
+    private String key(String type, Object value) {
+        return type + ':' + value;
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CacheProperties.CacheNames.MISSING_ENTITIES);
+    }
+}
@@ -0,0 +1,35 @@
+package ru.example.booking.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+@Component
+public class ResponseETags {
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectProvider<SerializedResponseCache> serializedResponseCache;
+
+    public ResponseETags(ObjectMapper objectMapper, ObjectProvider<SerializedResponseCache> serializedResponseCache) {
+        this.objectMapper = objectMapper;
+        this.serializedResponseCache = serializedResponseCache;
+    }
+
+    public String of(Object response) {
+        var cache = serializedResponseCache.getIfAvailable();
+        try {
+            return cache == null ? of(objectMapper.writeValueAsBytes(response)) : cache.get(response).eTag();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String of(byte[] json) {
+        return "\"" + Hashing.murmur3_128().hashBytes(json) + "\"";
+    }
+}
@@ -0,0 +1,171 @@
+package ru.example.booking.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.example.booking.configuration.properties.CacheProperties;
+import ru.example.booking.dto.room.RoomResponseList;
+import ru.example.booking.dto.room.SimpleRoomResponse;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomFilterCacheIndex implements CachePutListener {
+
+    private static final int MIN_PURGE_THRESHOLD = 1024;
+
+    private final ObjectProvider<CacheManager> cacheManager;
+
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    private final Map<FilterQueryKey, Dependencies> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile int purgeThreshold = MIN_PURGE_THRESHOLD;
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public void register(FilterQueryKey key, RoomResponseList result, long readGeneration) {
+        if (generation.get() != readGeneration) {
+            entries.remove(key);
+            return;
+        }
+
+        Set<Long> roomIds = result.getRooms().stream()
+                .map(SimpleRoomResponse::getId)
+                .collect(Collectors.toUnmodifiableSet());
+
+        entries.put(key, new Dependencies(roomIds,
+                key.get(FilterQueryKey.ID, Long.class),
+                key.get(FilterQueryKey.HOTEL_ID, Long.class),
+                key.get(FilterQueryKey.CHECK_IN, LocalDate.class),
+                key.get(FilterQueryKey.CHECK_OUT, LocalDate.class)));
+
+        // an eviction that ran while the page was read may have missed this entry
+        if (generation.get() != readGeneration) {
+            entries.remove(key);
+            return;
+        }
+
+        if (entries.size() > purgeThreshold) {
+            purgeExpired();
+        }
+    }
+
+    public void evictBookingChange(Long roomId, Long hotelId, LocalDate from, LocalDate to) {
+        evictBookingChangeLocally(roomId, hotelId, from, to);
+        invalidationPublisher.publishBookingChange(roomId, hotelId, from, to);
+    }
+
+    public void evictRoomChange(Long roomId, Long hotelId) {
+        evictRoomChangeLocally(roomId, hotelId);
+        invalidationPublisher.publishRoomChange(roomId, hotelId);
+    }
+
+    public void evictBookingChangeLocally(Long roomId, Long hotelId, LocalDate from, LocalDate to) {
+        evict(dependencies -> dependencies.contains(roomId)
+                || (dependencies.isDateFiltered()
+                && dependencies.mayMatch(roomId, hotelId)
+                && dependencies.overlaps(from, to)));
+    }
+
+    public void evictRoomChangeLocally(Long roomId, Long hotelId) {
+        evict(dependencies -> dependencies.contains(roomId) || dependencies.mayMatch(roomId, hotelId));
+    }
+
+    @Override
+    public void onPut(String cacheName, Object key) {
+        if (CacheProperties.CacheNames.ALL_ROOMS_WITH_FILTER.equals(cacheName) && !entries.containsKey(key)) {
+            evictLocally(cache(), key);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict(Predicate<Dependencies> affected) {
+        generation.incrementAndGet();
+        Cache cache = cache();
+        entries.entrySet().removeIf(entry -> {
+            if (!affected.test(entry.getValue())) {
+                return false;
+            }
+            evictLocally(cache, entry.getKey());
+            return true;
+        });
+    }
+
+    private void evictLocally(Cache cache, Object key) {
+        if (cache instanceof BroadcastingCache broadcastingCache) {
+            broadcastingCache.evictLocally(key);
+        } else if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void purgeExpired() {
+        Map<?, ?> cached = cachedEntries();
+        if (cached == null) {
+            entries.clear();
+            return;
+        }
+        entries.keySet().removeIf(key -> !cached.containsKey(key));
+        purgeThreshold = Math.max(MIN_PURGE_THRESHOLD, entries.size() * 2);
+        log.debug("Purged filter cache index, {} entries left", entries.size());
+    }
+
+    private Cache cache() {
+        var manager = cacheManager.getIfAvailable();
+        return manager == null ? null : manager.getCache(CacheProperties.CacheNames.ALL_ROOMS_WITH_FILTER);
+    }
+
+    private Map<?, ?> cachedEntries() {
+        Cache cache = cache();
+        if (cache == null) {
+            return null;
+        }
+        if (cache.getNativeCache() instanceof com.google.common.cache.Cache<?, ?> guavaCache) {
+            return guavaCache.asMap();
+        }
+        return cache.getNativeCache() instanceof Map<?, ?> map ? map : null;
+    }
+
+    private record Dependencies(Set<Long> roomIds, Long filterRoomId, Long filterHotelId,
+                                LocalDate checkIn, LocalDate checkOut) {
+
+        boolean contains(Long roomId) {
+            return roomIds.contains(roomId);
+        }
+
+        boolean mayMatch(Long roomId, Long hotelId) {
+            return (filterRoomId == null || filterRoomId.equals(roomId))
+                    && (filterHotelId == null || hotelId == null || filterHotelId.equals(hotelId));
+        }
+
+        boolean isDateFiltered() {
+            return checkIn != null && checkOut != null;
+        }
+
+        boolean overlaps(LocalDate from, LocalDate to) {
+            if (from == null || to == null) {
+                return true;
+            }
+            return !from.isAfter(checkOut) && !to.isBefore(checkIn);
+        }
+    }
+}
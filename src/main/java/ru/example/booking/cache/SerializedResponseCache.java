@@ -0,0 +1,72 @@
+package ru.example.booking.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+public class SerializedResponseCache implements CacheEvictionListener {
+
+    private final ObjectMapper objectMapper;
+
+    private final boolean gzip;
+
+    private final Cache<Object, SerializedBody> bodies;
+
+    public SerializedResponseCache(ObjectMapper objectMapper, boolean gzip, long maximumBytes) {
+        this.objectMapper = objectMapper;
+        this.gzip = gzip;
+        this.bodies = CacheBuilder.newBuilder()
+                .weakKeys()
+                .maximumWeight(maximumBytes)
+                .weigher((Object key, SerializedBody body) -> body.weight())
+                .build();
+    }
+
+    public SerializedBody get(Object response) throws IOException {
+        var body = bodies.getIfPresent(response);
+        if (body == null) {
+            body = serialize(response);
+            bodies.put(response, body);
+        }
+        return body;
+    }
+
+    @Override
+    public void onRemoval(String cacheName, Object value) {
+        if (value != null) {
+            bodies.invalidate(value);
+        }
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    private SerializedBody serialize(Object response) throws JsonProcessingException {
+        byte[] json = objectMapper.writeValueAsBytes(response);
+        return new SerializedBody(json, gzip ? compress(json) : null, ResponseETags.of(json));
+    }
+
+    private byte[] compress(byte[] json) {
+        var bytes = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (var gzipStream = new GZIPOutputStream(bytes)) {
+            gzipStream.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public record SerializedBody(byte[] json, byte[] gzipped, String eTag) {
+
+        int weight() {
+            return json.length + (gzipped == null ? 0 : gzipped.length);
+        }
+    }
+}
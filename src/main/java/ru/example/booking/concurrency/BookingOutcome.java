@@ -0,0 +1,19 @@
+package ru.example.booking.concurrency;
+
+import ru.example.booking.dao.postrgres.Reservation;
+import ru.example.booking.exception.RoomBookingException;
+
+public record BookingOutcome(Reservation reservation, RoomBookingException rejection) {
+
+    public static BookingOutcome accepted(Reservation reservation) {
+        return new BookingOutcome(reservation, null);
+    }
+
+    public static BookingOutcome rejected(RoomBookingException rejection) {
+        return new BookingOutcome(null, rejection);
+    }
+
+    public boolean isAccepted() {
+        return rejection == null;
+    }
+}
@@ -0,0 +1,124 @@
+package ru.example.booking.concurrency;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@Slf4j
+public class HashedTimingWheel<T> {
+
+    private final long tickNanos;
+
+    private final int mask;
+
+    private final List<LinkedList<Timeout<T>>> buckets;
+
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+
+    private final Consumer<T> onExpire;
+
+    private final ScheduledExecutorService worker;
+
+    private final long startNanos;
+
+    private long tick;
+
+    public HashedTimingWheel(String name, Duration tickDuration, int wheelSize, Consumer<T> onExpire) {
+        this.tickNanos = tickDuration.toNanos();
+        int size = Integer.highestOneBit(Math.max(2, wheelSize - 1)) << 1;
+        this.mask = size - 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new LinkedList<>());
+        }
+        this.onExpire = onExpire;
+        this.worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.startNanos = System.nanoTime();
+        worker.scheduleAtFixedRate(this::advance, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public Timeout<T> schedule(T item, Duration delay) {
+        var timeout = new Timeout<>(item, System.nanoTime() + delay.toNanos());
+        pending.add(timeout);
+        return timeout;
+    }
+
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private void advance() {
+        try {
+            transferPending();
+            expire(buckets.get((int) (tick & mask)));
+            tick++;
+        } catch (RuntimeException e) {
+            log.error("Timing wheel tick failed", e);
+        }
+    }
+
+    private void transferPending() {
+        Timeout<T> timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            long deadlineTick = Math.max((timeout.deadline - startNanos) / tickNanos, tick);
+            timeout.remainingRounds = (deadlineTick - tick) / buckets.size();
+            buckets.get((int) (deadlineTick & mask)).add(timeout);
+        }
+    }
+
+    private void expire(LinkedList<Timeout<T>> bucket) {
+        Iterator<Timeout<T>> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            var timeout = iterator.next();
+            if (timeout.cancelled) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                try {
+                    onExpire.accept(timeout.item);
+                } catch (RuntimeException e) {
+                    log.error("Timing wheel expiry callback failed", e);
+                }
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    public static final class Timeout<T> {
+
+        private final T item;
+
+        private final long deadline;
+
+        private long remainingRounds;
+
+        private volatile boolean cancelled;
+
+        private Timeout(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ru.example.booking.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.example.booking.exception.ConcurrentUpdateException;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+@Slf4j
+public class OptimisticRetryExecutor {
+
+    private final int maxAttempts;
+
+    private final Duration initialBackoff;
+
+    private final Duration maxBackoff;
+
+    private final MeterRegistry meterRegistry;
+
+    public OptimisticRetryExecutor(int maxAttempts, Duration initialBackoff, Duration maxBackoff,
+                                   MeterRegistry meterRegistry) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        // inside an outer transaction a retry would reuse the same stale persistence context
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+        int attempt = 1;
+        while (true) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("booking.optimistic.failures", "operation", operation).increment();
+                    log.warn("Optimistic locking failed for {} after {} attempts", operation, attempt);
+                    throw new ConcurrentUpdateException("Data was changed by another request, please try again");
+                }
+                meterRegistry.counter("booking.optimistic.retries", "operation", operation).increment();
+                pause(attempt);
+                attempt++;
+            }
+        }
+    }
+
+    public void run(String operation, Runnable action) {
+        execute(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private void pause(int attempt) {
+        long ceiling = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Data was changed by another request, please try again");
+        }
+    }
+}
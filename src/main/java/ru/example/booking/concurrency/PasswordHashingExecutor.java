@@ -0,0 +1,94 @@
+package ru.example.booking.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ru.example.booking.exception.TooManyRequestsException;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class PasswordHashingExecutor {
+
+    private static final String BUSY_MESSAGE = "Too many password operations, please try again later";
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final Duration timeout;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Timer hashTimer;
+
+    private final Counter rejectedCounter;
+
+    public PasswordHashingExecutor(PasswordEncoder passwordEncoder, int threads, int queueCapacity, Duration timeout,
+                                   MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeout = timeout;
+        BlockingQueue<Runnable> queue = queueCapacity > 0
+                ? new ArrayBlockingQueue<>(queueCapacity)
+                : new SynchronousQueue<>();
+        var threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(Math.max(1, threads), Math.max(1, threads), 0L, TimeUnit.MILLISECONDS,
+                queue, runnable -> {
+            var thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.hashTimer = Timer.builder("security.password.hash")
+                .description("Time spent hashing a password")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("security.password.hash.rejected")
+                .description("Password hashing requests rejected because the pool was full or busy")
+                .register(meterRegistry);
+        Gauge.builder("security.password.hash.queue", queue, BlockingQueue::size)
+                .description("Password hashing requests waiting for a thread")
+                .register(meterRegistry);
+    }
+
+    public String encode(CharSequence rawPassword) {
+        Future<String> hash;
+        try {
+            hash = executor.submit(() -> hashTimer.record(() -> passwordEncoder.encode(rawPassword)));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new TooManyRequestsException(BUSY_MESSAGE);
+        }
+
+        try {
+            return hash.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            hash.cancel(true);
+            executor.remove((Runnable) hash);
+            rejectedCounter.increment();
+            throw new TooManyRequestsException(BUSY_MESSAGE);
+        } catch (InterruptedException e) {
+            hash.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new TooManyRequestsException(BUSY_MESSAGE);
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
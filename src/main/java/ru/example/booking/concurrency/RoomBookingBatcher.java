@@ -0,0 +1,227 @@
+package ru.example.booking.concurrency;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import ru.example.booking.dao.postrgres.Reservation;
+import ru.example.booking.exception.RoomBusyException;
+import ru.example.booking.service.RoomService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+public class RoomBookingBatcher {
+
+    private final RoomService roomService;
+
+    private final int maxBatchSize;
+
+    private final Duration maxLatency;
+
+    private final Duration timeout;
+
+    private final ExecutorService executor;
+
+    private final DistributionSummary batchSize;
+
+    private final Map<Long, RoomQueue> queues = new ConcurrentHashMap<>();
+
+    public RoomBookingBatcher(RoomService roomService, int maxBatchSize, Duration maxLatency, Duration timeout,
+                              int workers, MeterRegistry meterRegistry) {
+        this.roomService = roomService;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxLatency = maxLatency;
+        this.timeout = timeout;
+        var threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, workers), runnable -> {
+            var thread = new Thread(runnable, "booking-batch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batchSize = DistributionSummary.builder("booking.batch.size")
+                .description("Booking requests committed in one room transaction")
+                .register(meterRegistry);
+    }
+
+    public Reservation book(Reservation reservation) {
+        var pending = enqueue(reservation);
+        try {
+            return await(pending.result(), timeout.toMillis());
+        } catch (TimeoutException e) {
+            if (pending.cancel()) {
+                throw new RoomBusyException("Room is busy, please try again later");
+            }
+            // the batch holding this request is already committing, its outcome is final
+            return awaitCommitted(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.cancel();
+            throw new RoomBusyException("Room is busy, please try again later");
+        }
+    }
+
+    public CompletableFuture<Reservation> submit(Reservation reservation) {
+        return enqueue(reservation).result();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private PendingBooking enqueue(Reservation reservation) {
+        var pending = new PendingBooking(reservation);
+        var queue = queues.compute(reservation.getRoom().getId(), (id, existed) -> {
+            var roomQueue = existed == null ? new RoomQueue() : existed;
+            roomQueue.pending.add(pending);
+            return roomQueue;
+        });
+        scheduleDrain(reservation.getRoom().getId(), queue);
+        return pending;
+    }
+
+    private Reservation await(CompletableFuture<Reservation> result, long timeoutMillis)
+            throws TimeoutException, InterruptedException {
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private Reservation awaitCommitted(PendingBooking pending) {
+        try {
+            return await(pending.result(), Long.MAX_VALUE);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RoomBusyException("Room is busy, please try again later");
+        }
+    }
+
+    private void scheduleDrain(Long roomId, RoomQueue queue) {
+        if (queue.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(roomId, queue));
+        }
+    }
+
+    private void drain(Long roomId, RoomQueue queue) {
+        try {
+            var batch = collectBatch(queue);
+            if (!batch.isEmpty()) {
+                commit(roomId, batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            queue.draining.set(false);
+            if (!queue.pending.isEmpty()) {
+                scheduleDrain(roomId, queue);
+            } else {
+                queues.computeIfPresent(roomId,
+                        (id, existed) -> existed == queue && existed.isIdle() ? null : existed);
+            }
+        }
+    }
+
+    private List<PendingBooking> collectBatch(RoomQueue queue) throws InterruptedException {
+        List<PendingBooking> batch = new ArrayList<>(maxBatchSize);
+        queue.pending.drainTo(batch, maxBatchSize);
+        long deadline = System.nanoTime() + maxLatency.toNanos();
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            var next = queue.pending.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            queue.pending.drainTo(batch, maxBatchSize - batch.size());
+        }
+        batch.removeIf(PendingBooking::isCancelled);
+        return batch;
+    }
+
+    private void commit(Long roomId, List<PendingBooking> collected) {
+        var batch = collected.stream().filter(PendingBooking::claim).toList();
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<BookingOutcome> outcomes;
+        try {
+            outcomes = roomService.addReservations(roomId, batch.stream().map(PendingBooking::reservation).toList());
+        } catch (RuntimeException e) {
+            log.warn("Booking batch for room {} failed: {}", roomId, e.getMessage());
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+            return;
+        }
+        batchSize.record(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            var outcome = outcomes.get(i);
+            if (outcome.isAccepted()) {
+                batch.get(i).result().complete(outcome.reservation());
+            } else {
+                batch.get(i).result().completeExceptionally(outcome.rejection());
+            }
+        }
+    }
+
+    private enum PendingState {
+        QUEUED, COMMITTING, CANCELLED
+    }
+
+    private record PendingBooking(Reservation reservation, CompletableFuture<Reservation> result,
+                                  AtomicReference<PendingState> state) {
+
+        private PendingBooking(Reservation reservation) {
+            this(reservation, new CompletableFuture<>(), new AtomicReference<>(PendingState.QUEUED));
+        }
+
+        private boolean claim() {
+            return state.compareAndSet(PendingState.QUEUED, PendingState.COMMITTING);
+        }
+
+        private boolean cancel() {
+            if (state.compareAndSet(PendingState.QUEUED, PendingState.CANCELLED)) {
+                result.cancel(false);
+                return true;
+            }
+            return false;
+        }
+
+        private boolean isCancelled() {
+            return state.get() == PendingState.CANCELLED;
+        }
+    }
+
+    private static class RoomQueue {
+
+        private final BlockingQueue<PendingBooking> pending = new LinkedBlockingQueue<>();
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private boolean isIdle() {
+            return pending.isEmpty() && !draining.get();
+        }
+    }
+}
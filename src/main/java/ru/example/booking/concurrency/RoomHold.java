@@ -0,0 +1,20 @@
+package ru.example.booking.concurrency;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+public record RoomHold(String id, Long roomId, LocalDate checkInDate, LocalDate checkOutDate, String username,
+                       Instant expiresAt) {
+
+    public boolean overlaps(LocalDate from, LocalDate to) {
+        return !to.isBefore(checkInDate) && !from.isAfter(checkOutDate);
+    }
+
+    public boolean covers(LocalDate from, LocalDate to) {
+        return !from.isBefore(checkInDate) && !to.isAfter(checkOutDate);
+    }
+
+    public boolean isExpired() {
+        return !Instant.now().isBefore(expiresAt);
+    }
+}
@@ -0,0 +1,94 @@
+package ru.example.booking.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class RoomHoldRegistry {
+
+    private final Map<String, RoomHold> holdsById = new ConcurrentHashMap<>();
+
+    private final Map<Long, Map<String, RoomHold>> holdsByRoom = new ConcurrentHashMap<>();
+
+    private final Map<String, HashedTimingWheel.Timeout<String>> expiries = new ConcurrentHashMap<>();
+
+    private final HashedTimingWheel<String> wheel;
+
+    private final Counter expiredCounter;
+
+    public RoomHoldRegistry(Duration tick, int wheelSize, MeterRegistry meterRegistry) {
+        this.wheel = new HashedTimingWheel<>("room-hold-expiry", tick, wheelSize, this::expire);
+        this.expiredCounter = Counter.builder("booking.hold.expired")
+                .description("Room holds released by expiry")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("booking.hold.active", Tags.empty(), holdsById);
+    }
+
+    public RoomHold hold(Long roomId, LocalDate checkInDate, LocalDate checkOutDate, String username, Duration ttl) {
+        var hold = new RoomHold(UUID.randomUUID().toString(), roomId, checkInDate, checkOutDate, username,
+                Instant.now().plus(ttl));
+        holdsById.put(hold.id(), hold);
+        holdsByRoom.computeIfAbsent(roomId, id -> new ConcurrentHashMap<>()).put(hold.id(), hold);
+        expiries.put(hold.id(), wheel.schedule(hold.id(), ttl));
+        return hold;
+    }
+
+    public Optional<RoomHold> find(String holdId) {
+        return Optional.ofNullable(holdsById.get(holdId)).filter(hold -> !hold.isExpired());
+    }
+
+    public boolean isHeld(Long roomId, LocalDate from, LocalDate to) {
+        return isHeldByOthers(roomId, from, to, null);
+    }
+
+    public boolean isHeldByOthers(Long roomId, LocalDate from, LocalDate to, String username) {
+        var roomHolds = holdsByRoom.get(roomId);
+        if (roomHolds == null) {
+            return false;
+        }
+        return roomHolds.values().stream()
+                .filter(hold -> !hold.isExpired())
+                .filter(hold -> username == null || !Objects.equals(hold.username(), username))
+                .anyMatch(hold -> hold.overlaps(from, to));
+    }
+
+    public void release(String holdId) {
+        var timeout = expiries.remove(holdId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        remove(holdId);
+    }
+
+    public void shutdown() {
+        wheel.shutdown();
+    }
+
+    private void expire(String holdId) {
+        expiries.remove(holdId);
+        if (remove(holdId)) {
+            expiredCounter.increment();
+        }
+    }
+
+    private boolean remove(String holdId) {
+        var hold = holdsById.remove(holdId);
+        if (hold == null) {
+            return false;
+        }
+        holdsByRoom.computeIfPresent(hold.roomId(), (roomId, roomHolds) -> {
+            roomHolds.remove(holdId);
+            return roomHolds.isEmpty() ? null : roomHolds;
+        });
+        return true;
+    }
+}
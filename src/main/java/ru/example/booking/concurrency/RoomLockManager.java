@@ -0,0 +1,91 @@
+package ru.example.booking.concurrency;
+
+import com.google.common.util.concurrent.Striped;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import ru.example.booking.exception.RoomBusyException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+@Slf4j
+public class RoomLockManager {
+
+    private final Striped<Lock> locks;
+
+    private final Duration timeout;
+
+    private final Timer waitTimer;
+
+    private final Counter contendedCounter;
+
+    private final Counter timeoutCounter;
+
+    public RoomLockManager(int stripes, Duration timeout, MeterRegistry meterRegistry) {
+        this.locks = Striped.lock(stripes);
+        this.timeout = timeout;
+        this.waitTimer = Timer.builder("booking.room.lock.wait")
+                .description("Time spent waiting for a room lock")
+                .register(meterRegistry);
+        this.contendedCounter = Counter.builder("booking.room.lock.contended")
+                .description("Room lock acquisitions that had to wait")
+                .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("booking.room.lock.timeouts")
+                .description("Room lock acquisitions that timed out")
+                .register(meterRegistry);
+    }
+
+    public <T> T executeLocked(Long roomId, Supplier<T> action) {
+        return executeLocked(Collections.singletonList(roomId), action);
+    }
+
+    public <T> T executeLocked(List<Long> roomIds, Supplier<T> action) {
+        List<Lock> acquired = new ArrayList<>();
+        try {
+            for (Lock lock : locks.bulkGet(roomIds.stream().filter(Objects::nonNull).distinct().toList())) {
+                acquire(lock);
+                acquired.add(lock);
+            }
+            return action.get();
+        } finally {
+            for (int i = acquired.size() - 1; i >= 0; i--) {
+                acquired.get(i).unlock();
+            }
+        }
+    }
+
+    public void runLocked(Long roomId, Runnable action) {
+        executeLocked(roomId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private void acquire(Lock lock) {
+        if (lock.tryLock()) {
+            return;
+        }
+        contendedCounter.increment();
+        long start = System.nanoTime();
+        try {
+            if (!lock.tryLock(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                timeoutCounter.increment();
+                log.warn("Room lock was not acquired in {}", timeout);
+                throw new RoomBusyException("Room is busy, please try again later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RoomBusyException("Room is busy, please try again later");
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
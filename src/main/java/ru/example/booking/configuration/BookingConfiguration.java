@@ -0,0 +1,44 @@
+package ru.example.booking.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.example.booking.concurrency.OptimisticRetryExecutor;
+import ru.example.booking.concurrency.RoomBookingBatcher;
+import ru.example.booking.concurrency.RoomHoldRegistry;
+import ru.example.booking.concurrency.RoomLockManager;
+import ru.example.booking.configuration.properties.BookingProperties;
+import ru.example.booking.service.RoomService;
+
+@Configuration
+@EnableConfigurationProperties(BookingProperties.class)
+public class BookingConfiguration {
+
+    @Bean
+    public RoomLockManager roomLockManager(BookingProperties bookingProperties, MeterRegistry meterRegistry) {
+        var lock = bookingProperties.getLock();
+        return new RoomLockManager(lock.getStripes(), lock.getTimeout(), meterRegistry);
+    }
+
+    @Bean
+    public OptimisticRetryExecutor optimisticRetryExecutor(BookingProperties bookingProperties, MeterRegistry meterRegistry) {
+        var retry = bookingProperties.getRetry();
+        return new OptimisticRetryExecutor(retry.getMaxAttempts(), retry.getInitialBackoff(), retry.getMaxBackoff(),
+                meterRegistry);
+    }
+
+    @Bean
+    public RoomHoldRegistry roomHoldRegistry(BookingProperties bookingProperties, MeterRegistry meterRegistry) {
+        var hold = bookingProperties.getHold();
+        return new RoomHoldRegistry(hold.getTick(), hold.getWheelSize(), meterRegistry);
+    }
+
+    @Bean
+    public RoomBookingBatcher roomBookingBatcher(RoomService roomService, BookingProperties bookingProperties,
+                                                 MeterRegistry meterRegistry) {
+        var batching = bookingProperties.getBatching();
+        return new RoomBookingBatcher(roomService, batching.getMaxBatchSize(), batching.getMaxLatency(),
+                batching.getTimeout(), batching.getWorkers(), meterRegistry);
+    }
+}
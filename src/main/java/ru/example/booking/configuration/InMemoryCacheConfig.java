@@ -1,15 +1,22 @@
 package ru.example.booking.configuration;
 
-import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
-import org.springframework.cache.Cache;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCache;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import ru.example.booking.cache.CacheEvictionListener;
+import ru.example.booking.cache.CacheInvalidationPublisher;
+import ru.example.booking.cache.CachePutListener;
+import ru.example.booking.cache.FilterQueryKey;
+import ru.example.booking.cache.GuavaCacheManager;
 import ru.example.booking.configuration.properties.CacheProperties;
+import ru.example.booking.dto.defaults.FindAllSettings;
+
+import java.util.List;
 
 @Configuration
 @EnableCaching
@@ -18,24 +25,21 @@ public class InMemoryCacheConfig {
 
     @Bean
     @ConditionalOnExpression("'${app.cache.enable}'.equals('true')")
-    public ConcurrentMapCacheManager cacheManager(CacheProperties cacheProperties) {
-        var cacheManager = new ConcurrentMapCacheManager() {
+    public GuavaCacheManager cacheManager(CacheProperties cacheProperties, MeterRegistry meterRegistry,
+                                          CacheInvalidationPublisher invalidationPublisher,
+                                          List<CacheEvictionListener> evictionListeners,
+                                          List<CachePutListener> putListeners) {
+        return new GuavaCacheManager(cacheProperties, meterRegistry, invalidationPublisher, evictionListeners,
+                putListeners);
+    }
+
+    @Bean
+    public KeyGenerator roomFilterKeyGenerator(@Value("${app.dateFormat}") String datePattern) {
+        return (target, method, params) -> FilterQueryKey.forRooms((FindAllSettings) params[0], datePattern);
+    }
 
-            @Override
-            protected Cache createConcurrentMapCache(String name) {
-                return new ConcurrentMapCache(name,
-                        CacheBuilder.newBuilder()
-                                .expireAfterWrite(cacheProperties.getCaches().get(name).getExpiry())
-                                .build()
-                                .asMap(),
-                        true
-                );
-            }
-        };
-        var cacheNames = cacheProperties.getCacheNames();
-        if (!cacheNames.isEmpty()) {
-            cacheManager.setCacheNames(cacheNames);
-        }
-        return cacheManager;
+    @Bean
+    public KeyGenerator hotelFilterKeyGenerator() {
+        return (target, method, params) -> FilterQueryKey.forHotels((FindAllSettings) params[0]);
     }
 }
@@ -1,9 +1,10 @@
 package ru.example.booking.configuration;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -15,6 +16,15 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import ru.example.booking.concurrency.PasswordHashingExecutor;
+import ru.example.booking.security.AccessTokenService;
+import ru.example.booking.security.CachingAuthenticationProvider;
+import ru.example.booking.security.CredentialVersions;
+import ru.example.booking.security.TokenAuthenticationFilter;
+import ru.example.booking.security.VerifiedCredentialCache;
+
+import java.time.Duration;
 
 @Configuration
 @EnableMethodSecurity
@@ -26,25 +36,36 @@ public class SecurityConfiguration {
         return new BCryptPasswordEncoder(12);
     }
 
+    @Bean
+    public PasswordHashingExecutor passwordHashingExecutor(PasswordEncoder passwordEncoder,
+                                                           @Value("${app.security.hashing.threads}") int threads,
+                                                           @Value("${app.security.hashing.queueCapacity}") int queueCapacity,
+                                                           @Value("${app.security.hashing.timeout}") Duration timeout,
+                                                           MeterRegistry meterRegistry) {
+        return new PasswordHashingExecutor(passwordEncoder, threads, queueCapacity, timeout, meterRegistry);
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(HttpSecurity http,
                                                        UserDetailsService userDetailsService,
-                                                       PasswordEncoder passwordEncoder) throws Exception {
+                                                       PasswordEncoder passwordEncoder,
+                                                       VerifiedCredentialCache credentialCache) throws Exception {
         var authenticationManagerBuilder = http.getSharedObject(AuthenticationManagerBuilder.class);
-        authenticationManagerBuilder.userDetailsService(userDetailsService);
-        var authenticationProvider = new DaoAuthenticationProvider(passwordEncoder);
-        authenticationProvider.setUserDetailsService(userDetailsService);
+        var authenticationProvider = new CachingAuthenticationProvider(passwordEncoder, userDetailsService, credentialCache);
         authenticationManagerBuilder.authenticationProvider(authenticationProvider);
         return authenticationManagerBuilder.build();
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationManager authenticationManager) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationManager authenticationManager,
+                                                   AccessTokenService accessTokenService,
+                                                   CredentialVersions credentialVersions) throws Exception {
         http.authorizeHttpRequests((auth) -> auth.requestMatchers("/api/public/**").permitAll()
                         .requestMatchers("/swagger-ui/**").hasAnyRole("ADMIN")
                         .anyRequest().authenticated())
                 .csrf(AbstractHttpConfigurer::disable)
                 .httpBasic(Customizer.withDefaults())
+                .addFilterBefore(new TokenAuthenticationFilter(accessTokenService, credentialVersions), BasicAuthenticationFilter.class)
                 .sessionManagement(httpSecuritySessionManagementConfigurer -> httpSecuritySessionManagementConfigurer
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationManager(authenticationManager);
@@ -0,0 +1,40 @@
+package ru.example.booking.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.example.booking.cache.SerializedResponseCache;
+import ru.example.booking.cache.SerializedResponseConverter;
+import ru.example.booking.dto.hotel.HotelResponseList;
+import ru.example.booking.dto.room.RoomResponseList;
+
+import java.util.List;
+import java.util.Set;
+
+@Configuration
+@ConditionalOnExpression("'${app.web.serializedCache.enable}'.equals('true')")
+public class WebConfiguration implements WebMvcConfigurer {
+
+    private final SerializedResponseCache serializedResponseCache;
+
+    public WebConfiguration(ObjectMapper objectMapper,
+                            @Value("${app.web.serializedCache.gzip}") boolean gzip,
+                            @Value("${app.web.serializedCache.maximumBytes}") long maximumBytes) {
+        this.serializedResponseCache = new SerializedResponseCache(objectMapper, gzip, maximumBytes);
+    }
+
+    @Bean
+    public SerializedResponseCache serializedResponseCache() {
+        return serializedResponseCache;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new SerializedResponseConverter(serializedResponseCache,
+                Set.of(RoomResponseList.class, HotelResponseList.class)));
+    }
+}
@@ -0,0 +1,49 @@
+package ru.example.booking.configuration.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.booking")
+public class BookingProperties {
+
+    private final LockSettings lock = new LockSettings();
+
+    private final RetrySettings retry = new RetrySettings();
+
+    private final BatchingSettings batching = new BatchingSettings();
+
+    private final HoldSettings hold = new HoldSettings();
+
+    @Data
+    public static class LockSettings {
+        private int stripes = 256;
+        private Duration timeout = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class RetrySettings {
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(10);
+        private Duration maxBackoff = Duration.ofMillis(200);
+    }
+
+    @Data
+    public static class BatchingSettings {
+        private boolean enable = false;
+        private int maxBatchSize = 32;
+        private Duration maxLatency = Duration.ofMillis(2);
+        private Duration timeout = Duration.ofSeconds(10);
+        private int workers = 4;
+    }
+
+    @Data
+    public static class HoldSettings {
+        private Duration defaultTtl = Duration.ofMinutes(10);
+        private Duration maxTtl = Duration.ofMinutes(30);
+        private Duration tick = Duration.ofSeconds(1);
+        private int wheelSize = 512;
+    }
+}
@@ -2,6 +2,7 @@ package ru.example.booking.configuration.properties;
 
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import ru.example.booking.dto.defaults.FindAllSettings;
 
 import java.time.Duration;
 import java.util.ArrayList;
@@ -17,14 +18,44 @@ public class CacheProperties {
 
     private final Map<String, CacheSettings> caches = new HashMap<>();
 
+    private int refreshThreads = 2;
+
+    private int refreshQueueCapacity = 100;
+
+    private final WarmUp warmUp = new WarmUp();
+
     @Data
     public static class CacheSettings {
         private Duration expiry = Duration.ZERO;
+        private Duration expireAfterAccess = Duration.ZERO;
+        // reloads reuse the loader of @Cacheable(sync = true), entries put by other reads are never refreshed
+        private Duration refreshAfterWrite = Duration.ZERO;
+        private long maximumSize = 1000;
+        private long maximumWeight = 0;
+        private boolean recordStats = true;
+    }
+
+    @Data
+    public static class WarmUp {
+        private boolean enable = false;
+        private int topRooms = 100;
+        private int threads = 4;
+        private Duration timeout = Duration.ofSeconds(30);
+        private List<FindAllSettings> roomFilters = new ArrayList<>();
+        private List<FindAllSettings> hotelFilters = new ArrayList<>();
     }
 
     public interface CacheNames {
         String ALL_ROOMS = "allRooms";
         String ALL_ROOMS_WITH_FILTER = "allRoomsWithFilter";
         String ROOM_BY_ID = "roomById";
+        String ROOM_CALENDAR = "roomCalendar";
+        String ALL_HOTELS = "allHotels";
+        String ALL_HOTELS_WITH_FILTER = "allHotelsWithFilter";
+        String HOTEL_BY_ID = "hotelById";
+        String HOTEL_BY_NAME = "hotelByName";
+        String MISSING_ENTITIES = "missingEntities";
+        String VERIFIED_CREDENTIALS = "verifiedCredentials";
+        String CREDENTIAL_VERSIONS = "credentialVersions";
     }
 }
@@ -0,0 +1,102 @@
+package ru.example.booking.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import ru.example.booking.dto.defaults.ErrorResponse;
+import ru.example.booking.dto.hold.CreateHoldRequest;
+import ru.example.booking.dto.hold.HoldResponse;
+import ru.example.booking.service.HoldService;
+
+@RestController
+@RequestMapping("/api/hold")
+@RequiredArgsConstructor
+public class HoldController {
+
+    private final HoldService holdService;
+
+    @Operation(
+            summary = "Hold dates",
+            description = "To hold available dates of the room for a limited time before booking",
+            security = @SecurityRequirement(name = "ADMIN, USER"),
+            tags = {"hold", "POST"}
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "201",
+                    content = {
+                            @Content(schema = @Schema(implementation = HoldResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    content = {
+                            @Content(schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    content = {
+                            @Content(schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    content = {
+                            @Content(schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
+            ),
+    })
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public HoldResponse hold(@RequestBody @Valid CreateHoldRequest request,
+                             @AuthenticationPrincipal UserDetails userDetails) {
+        return holdService.hold(request, userDetails.getUsername());
+    }
+
+    @Operation(
+            summary = "Release hold",
+            description = "To release the hold by hold ID (user with role 'USER' can release only their holds)",
+            security = @SecurityRequirement(name = "ADMIN, USER"),
+            tags = {"hold", "DELETE"}
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "204"
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    content = {
+                            @Content(schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    content = {
+                            @Content(schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
+            )
+    })
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void release(@PathVariable("id") String id,
+                        @AuthenticationPrincipal UserDetails userDetails) {
+        holdService.release(id, userDetails.getUsername());
+    }
+}
@@ -14,6 +14,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.example.booking.cache.ResponseETags;
 import ru.example.booking.dto.defaults.ErrorResponse;
 import ru.example.booking.dto.defaults.FindAllSettings;
 import ru.example.booking.dto.hotel.CreateHotelRequest;
@@ -29,6 +31,8 @@ public class HotelController {
 
     private final HotelService hotelService;
 
+    private final ResponseETags responseETags;
+
     @Operation(
             summary = "Find all hotels",
             description = "To find all hotels without filter and pagination",
@@ -49,11 +53,19 @@ public class HotelController {
                             @Content(schema = @Schema(implementation = ErrorResponse.class),
                                     mediaType = MediaType.APPLICATION_JSON_VALUE)
                     }
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Resource is not modified since the version in If-None-Match"
             )
     })
     @GetMapping
-    public HotelResponseList findAll() {
-        return hotelService.findAll();
+    public HotelResponseList findAll(WebRequest request) {
+        var response = hotelService.findAll();
+        if (request.checkNotModified(responseETags.of(response))) {
+            return null;
+        }
+        return response;
     }
 
     @Operation(
@@ -110,11 +122,19 @@ public class HotelController {
                             @Content(schema = @Schema(implementation = ErrorResponse.class),
                                     mediaType = MediaType.APPLICATION_JSON_VALUE)
                     }
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Resource is not modified since the version in If-None-Match"
             )
     })
     @GetMapping("/{id}")
-    public HotelResponse findById(@PathVariable("id") Long id) {
-        return hotelService.findById(id);
+    public HotelResponse findById(@PathVariable("id") Long id, WebRequest request) {
+        var response = hotelService.findById(id);
+        if (request.checkNotModified(responseETags.of(response))) {
+            return null;
+        }
+        return response;
     }
 
     @Operation(
@@ -121,6 +121,13 @@ public class ReservationController {
                                     mediaType = MediaType.APPLICATION_JSON_VALUE)
                     }
             ),
+            @ApiResponse(
+                    responseCode = "503",
+                    content = {
+                            @Content(schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
+            )
     })
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -164,6 +171,13 @@ public class ReservationController {
                             @Content(schema = @Schema(implementation = ErrorResponse.class),
                                     mediaType = MediaType.APPLICATION_JSON_VALUE)
                     }
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    content = {
+                            @Content(schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
             )
     })
     @PutMapping("/{id}")
@@ -204,6 +218,13 @@ public class ReservationController {
                             @Content(schema = @Schema(implementation = ErrorResponse.class),
                                     mediaType = MediaType.APPLICATION_JSON_VALUE)
                     }
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    content = {
+                            @Content(schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
             )
     })
     @DeleteMapping("/{id}")
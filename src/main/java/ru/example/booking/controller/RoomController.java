@@ -12,8 +12,15 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.example.booking.cache.ResponseETags;
 import ru.example.booking.dto.defaults.ErrorResponse;
 import ru.example.booking.dto.defaults.FindAllSettings;
+import ru.example.booking.dto.room.FlexibleDatesRequest;
+import ru.example.booking.dto.room.FlexibleDatesResponseList;
+import ru.example.booking.dto.room.RoomAvailabilityRequest;
+import ru.example.booking.dto.room.RoomAvailabilityResponseList;
+import ru.example.booking.dto.room.RoomCalendarResponse;
 import ru.example.booking.dto.room.RoomResponseList;
 import ru.example.booking.dto.room.SimpleRoomResponse;
 import ru.example.booking.dto.room.UpsertRoomRequest;
@@ -26,6 +33,8 @@ public class RoomController {
 
     private final RoomService roomService;
 
+    private final ResponseETags responseETags;
+
     @Operation(
             summary = "Find all rooms",
             description = "To find rooms without filter and pagination",
@@ -47,10 +56,18 @@ public class RoomController {
                                     mediaType = MediaType.APPLICATION_JSON_VALUE)
                     }
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Resource is not modified since the version in If-None-Match"
+            ),
     })
     @GetMapping
-    public RoomResponseList findAll() {
-        return roomService.findAll();
+    public RoomResponseList findAll(WebRequest request) {
+        var response = roomService.findAll();
+        if (request.checkNotModified(responseETags.of(response))) {
+            return null;
+        }
+        return response;
     }
 
     @Operation(
@@ -80,6 +97,74 @@ public class RoomController {
         return roomService.findAll(settings);
     }
 
+    @Operation(
+            summary = "Check rooms availability",
+            description = "To check availability of several rooms for the dates in one request",
+            security = @SecurityRequirement(name = "ADMIN, USER"),
+            tags = {"room", "GET"}
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode="200",
+                    content = {
+                            @Content(schema = @Schema(implementation = RoomAvailabilityResponseList.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    content = {
+                            @Content(schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    content = {
+                            @Content(schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
+            ),
+    })
+    @GetMapping("/availability")
+    public RoomAvailabilityResponseList checkAvailability(@RequestBody @Valid RoomAvailabilityRequest request) {
+        return roomService.checkAvailability(request);
+    }
+
+    @Operation(
+            summary = "Find rooms with flexible dates",
+            description = "To find rooms with the earliest free window of N nights between two dates, with pagination",
+            security = @SecurityRequirement(name = "ADMIN, USER"),
+            tags = {"room", "GET"}
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode="200",
+                    content = {
+                            @Content(schema = @Schema(implementation = FlexibleDatesResponseList.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    content = {
+                            @Content(schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    content = {
+                            @Content(schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
+            ),
+    })
+    @GetMapping("/flexible")
+    public FlexibleDatesResponseList findFlexibleDates(@RequestBody @Valid FlexibleDatesRequest request) {
+        return roomService.findFlexibleDates(request);
+    }
+
     @Operation(
             summary = "Find room",
             description = "To find room by id",
@@ -108,10 +193,52 @@ public class RoomController {
                                     mediaType = MediaType.APPLICATION_JSON_VALUE)
                     }
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Resource is not modified since the version in If-None-Match"
+            ),
     })
     @GetMapping("/{id}")
-    public SimpleRoomResponse findById(@PathVariable("id") Long id) {
-        return roomService.findById(id);
+    public SimpleRoomResponse findById(@PathVariable("id") Long id, WebRequest request) {
+        var response = roomService.findById(id);
+        if (request.checkNotModified(responseETags.of(response))) {
+            return null;
+        }
+        return response;
+    }
+
+    @Operation(
+            summary = "Find room calendar",
+            description = "To find free and booked date runs of the room from today over the calendar horizon",
+            security = @SecurityRequirement(name = "ADMIN, USER"),
+            tags = {"room", "GET"}
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode="200",
+                    content = {
+                            @Content(schema = @Schema(implementation = RoomCalendarResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    content = {
+                            @Content(schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    content = {
+                            @Content(schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
+            ),
+    })
+    @GetMapping("/{id}/calendar")
+    public RoomCalendarResponse findCalendar(@PathVariable("id") Long id) {
+        return roomService.findCalendar(id);
     }
 
     @Operation(
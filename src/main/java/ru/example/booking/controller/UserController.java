@@ -157,6 +157,13 @@ public class UserController {
                             @Content(schema = @Schema(implementation = ErrorResponse.class),
                                     mediaType = MediaType.APPLICATION_JSON_VALUE)
                     }
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    content = {
+                            @Content(schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
             )
     })
     @PostMapping
@@ -203,6 +210,13 @@ public class UserController {
                             @Content(schema = @Schema(implementation = ErrorResponse.class),
                                     mediaType = MediaType.APPLICATION_JSON_VALUE)
                     }
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    content = {
+                            @Content(schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
             )
     })
     @PutMapping("/{id}")
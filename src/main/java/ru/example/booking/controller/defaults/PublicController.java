@@ -5,6 +5,7 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -12,6 +13,9 @@ import org.springframework.web.bind.annotation.*;
 import ru.example.booking.dao.postrgres.RoleType;
 import ru.example.booking.dto.defaults.ErrorResponse;
 import ru.example.booking.dto.user.CreateUserRequest;
+import ru.example.booking.dto.user.LoginRequest;
+import ru.example.booking.dto.user.TokenResponse;
+import ru.example.booking.service.AuthenticationService;
 import ru.example.booking.service.UserService;
 
 @RestController
@@ -21,6 +25,8 @@ public class PublicController {
 
     private final UserService userService;
 
+    private final AuthenticationService authenticationService;
+
     @Operation(
             summary = "Create new user",
             description = "To create a user without authorization",
@@ -44,6 +50,13 @@ public class PublicController {
                             @Content(schema = @Schema(implementation = ErrorResponse.class),
                                     mediaType = MediaType.APPLICATION_JSON_VALUE)
                     }
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    content = {
+                            @Content(schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
             )
     })
     @PostMapping("/account")
@@ -52,4 +65,37 @@ public class PublicController {
         userService.save(role, request);
     }
 
+    @Operation(
+            summary = "Login",
+            description = "To check the password once and get a short-lived access token for the \"Authorization: Bearer\" header",
+            tags = {"user", "POST"}
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    content = {
+                            @Content(schema = @Schema(implementation = TokenResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    content = {
+                            @Content(schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    content = {
+                            @Content(schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    }
+            )
+    })
+    @PostMapping("/login")
+    public TokenResponse login(@RequestBody @Valid LoginRequest request) {
+        return authenticationService.login(request);
+    }
+
 }
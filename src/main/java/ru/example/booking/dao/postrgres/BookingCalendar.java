@@ -0,0 +1,282 @@
+package ru.example.booking.dao.postrgres;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+public class BookingCalendar implements Serializable {
+
+    private static final long[] EMPTY = new long[0];
+
+    private static final int WORD_BYTES = Long.BYTES;
+
+    private long firstWord;
+
+    private long[] words = EMPTY;
+
+    public BookingCalendar() {
+    }
+
+    public static BookingCalendar of(LocalDate from, LocalDate to) {
+        var calendar = new BookingCalendar();
+        calendar.book(from, to);
+        return calendar;
+    }
+
+    @JsonCreator
+    public static BookingCalendar of(Collection<LocalDate> dates) {
+        var calendar = new BookingCalendar();
+        dates.forEach(date -> calendar.book(date, date));
+        return calendar;
+    }
+
+    public static BookingCalendar ofReservations(Collection<Reservation> reservations) {
+        var calendar = new BookingCalendar();
+        reservations.forEach(reservation -> calendar.book(reservation.getCheckInDate(), reservation.getCheckOutDate()));
+        return calendar;
+    }
+
+    public static BookingCalendar fromBytes(byte[] bytes) {
+        var calendar = new BookingCalendar();
+        if (bytes == null || bytes.length < WORD_BYTES) {
+            return calendar;
+        }
+        var buffer = ByteBuffer.wrap(bytes);
+        calendar.firstWord = buffer.getLong();
+        calendar.words = new long[buffer.remaining() / WORD_BYTES];
+        for (int i = 0; i < calendar.words.length; i++) {
+            calendar.words[i] = buffer.getLong();
+        }
+        calendar.trim();
+        return calendar;
+    }
+
+    public byte[] toBytes() {
+        if (words.length == 0) {
+            return new byte[0];
+        }
+        var buffer = ByteBuffer.allocate(WORD_BYTES + words.length * WORD_BYTES);
+        buffer.putLong(firstWord);
+        for (long word : words) {
+            buffer.putLong(word);
+        }
+        return buffer.array();
+    }
+
+    public BookingCalendar copy() {
+        var copy = new BookingCalendar();
+        copy.firstWord = firstWord;
+        copy.words = words.clone();
+        return copy;
+    }
+
+    public boolean isFree(LocalDate from, LocalDate to) {
+        long start = from.toEpochDay();
+        long end = to.toEpochDay();
+        for (long word = wordIndex(start); word <= wordIndex(end); word++) {
+            if ((wordAt(word) & mask(word, start, end)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isBooked(LocalDate from, LocalDate to) {
+        long start = from.toEpochDay();
+        long end = to.toEpochDay();
+        for (long word = wordIndex(start); word <= wordIndex(end); word++) {
+            long mask = mask(word, start, end);
+            if ((wordAt(word) & mask) != mask) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isBooked(LocalDate date) {
+        return isBooked(date, date);
+    }
+
+    public void book(LocalDate from, LocalDate to) {
+        long start = from.toEpochDay();
+        long end = to.toEpochDay();
+        ensureCapacity(wordIndex(start), wordIndex(end));
+        for (long word = wordIndex(start); word <= wordIndex(end); word++) {
+            words[(int) (word - firstWord)] |= mask(word, start, end);
+        }
+    }
+
+    public void release(LocalDate from, LocalDate to) {
+        long start = from.toEpochDay();
+        long end = to.toEpochDay();
+        long lastWord = firstWord + words.length - 1;
+        for (long word = Math.max(wordIndex(start), firstWord); word <= Math.min(wordIndex(end), lastWord); word++) {
+            words[(int) (word - firstWord)] &= ~mask(word, start, end);
+        }
+        trim();
+    }
+
+    public LocalDate findFreeWindow(LocalDate from, LocalDate to, int nights) {
+        long day = from.toEpochDay();
+        long end = to.toEpochDay();
+        while (day + nights - 1 <= end) {
+            long free = nextFree(day);
+            if (free + nights - 1 > end) {
+                return null;
+            }
+            long booked = nextBooked(free);
+            if (booked - free >= nights) {
+                return LocalDate.ofEpochDay(free);
+            }
+            day = booked + 1;
+        }
+        return null;
+    }
+
+    public LocalDate nextBookedDate(LocalDate from) {
+        long booked = nextBooked(from.toEpochDay());
+        return booked == Long.MAX_VALUE ? null : LocalDate.ofEpochDay(booked);
+    }
+
+    public LocalDate nextFreeDate(LocalDate from) {
+        return LocalDate.ofEpochDay(nextFree(from.toEpochDay()));
+    }
+
+    public int size() {
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return words.length == 0;
+    }
+
+    @JsonValue
+    public List<LocalDate> toDates() {
+        List<LocalDate> dates = new ArrayList<>(size());
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                dates.add(LocalDate.ofEpochDay((firstWord + i) * Long.SIZE + bit));
+                word &= word - 1;
+            }
+        }
+        return dates;
+    }
+
+    private long nextBooked(long epochDay) {
+        long lastWord = firstWord + words.length - 1;
+        for (long word = Math.max(wordIndex(epochDay), firstWord); word <= lastWord; word++) {
+            long bits = wordAt(word);
+            if (word == wordIndex(epochDay)) {
+                bits &= -1L << Math.floorMod(epochDay, Long.SIZE);
+            }
+            if (bits != 0) {
+                return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private long nextFree(long epochDay) {
+        for (long word = wordIndex(epochDay); ; word++) {
+            long bits = ~wordAt(word);
+            if (word == wordIndex(epochDay)) {
+                bits &= -1L << Math.floorMod(epochDay, Long.SIZE);
+            }
+            if (bits != 0) {
+                return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+            }
+        }
+    }
+
+    private long wordAt(long word) {
+        if (word < firstWord || word >= firstWord + words.length) {
+            return 0L;
+        }
+        return words[(int) (word - firstWord)];
+    }
+
+    private void ensureCapacity(long fromWord, long toWord) {
+        if (words.length == 0) {
+            firstWord = fromWord;
+            words = new long[(int) (toWord - fromWord + 1)];
+            return;
+        }
+        long lastWord = firstWord + words.length - 1;
+        long newFirstWord = Math.min(firstWord, fromWord);
+        long newLastWord = Math.max(lastWord, toWord);
+        if (newFirstWord == firstWord && newLastWord == lastWord) {
+            return;
+        }
+        long[] expanded = new long[(int) (newLastWord - newFirstWord + 1)];
+        System.arraycopy(words, 0, expanded, (int) (firstWord - newFirstWord), words.length);
+        firstWord = newFirstWord;
+        words = expanded;
+    }
+
+    private void trim() {
+        int from = 0;
+        int to = words.length;
+        while (from < to && words[from] == 0) {
+            from++;
+        }
+        while (to > from && words[to - 1] == 0) {
+            to--;
+        }
+        if (from == to) {
+            firstWord = 0;
+            words = EMPTY;
+        } else if (from > 0 || to < words.length) {
+            firstWord += from;
+            words = Arrays.copyOfRange(words, from, to);
+        }
+    }
+
+    private static long wordIndex(long epochDay) {
+        return Math.floorDiv(epochDay, Long.SIZE);
+    }
+
+    private static long mask(long word, long start, long end) {
+        long mask = -1L;
+        if (word == wordIndex(start)) {
+            mask &= -1L << Math.floorMod(start, Long.SIZE);
+        }
+        if (word == wordIndex(end)) {
+            mask &= -1L >>> (Long.SIZE - 1 - Math.floorMod(end, Long.SIZE));
+        }
+        return mask;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BookingCalendar that)) {
+            return false;
+        }
+        return firstWord == that.firstWord && Arrays.equals(words, that.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(firstWord) + Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        return "BookingCalendar(bookedNights=" + size() + ")";
+    }
+}
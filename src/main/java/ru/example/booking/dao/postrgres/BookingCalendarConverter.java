@@ -0,0 +1,18 @@
+package ru.example.booking.dao.postrgres;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class BookingCalendarConverter implements AttributeConverter<BookingCalendar, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(BookingCalendar calendar) {
+        return calendar == null ? null : calendar.toBytes();
+    }
+
+    @Override
+    public BookingCalendar convertToEntityAttribute(byte[] bytes) {
+        return bytes == null ? null : BookingCalendar.fromBytes(bytes);
+    }
+}
@@ -3,6 +3,8 @@ package ru.example.booking.dao.postrgres;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldNameConstants;
+import org.hibernate.annotations.ColumnDefault;
+import ru.example.booking.cache.ExistenceFilterEntityListener;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -10,6 +12,7 @@ import java.util.List;
 @Data
 @Entity
 @Table(name = "hotels", uniqueConstraints = {@UniqueConstraint(name = "hotel_name", columnNames = "name")})
+@EntityListeners(ExistenceFilterEntityListener.class)
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -20,6 +23,10 @@ public class Hotel {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
     private String name;
 
     private String headline;
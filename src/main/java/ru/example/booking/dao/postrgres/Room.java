@@ -4,17 +4,17 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldNameConstants;
+import org.hibernate.annotations.ColumnDefault;
+import ru.example.booking.cache.ExistenceFilterEntityListener;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 @Data
 @Entity
 @Table(name = "rooms", uniqueConstraints = @UniqueConstraint(name = "room_name", columnNames = "name"))
+@EntityListeners(ExistenceFilterEntityListener.class)
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
@@ -25,6 +25,10 @@ public class Room {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
     private String name;
 
     @ManyToOne
@@ -42,7 +46,9 @@ public class Room {
 
     @Builder.Default
     @ToString.Exclude
-    private Set<LocalDate> bookedDates = new HashSet<>();
+    @Convert(converter = BookingCalendarConverter.class)
+    @Column(name = "booked_calendar")
+    private BookingCalendar bookedDates = new BookingCalendar();
 
     @Builder.Default
     @JsonIgnore
@@ -51,4 +57,8 @@ public class Room {
     @ToString.Exclude
     private List<Reservation> reservations = new ArrayList<>();
 
+    // rows written before the calendar column existed keep it null until BookingCalendarBackfill fills it
+    public BookingCalendar getBookedDates() {
+        return bookedDates != null ? bookedDates : BookingCalendar.ofReservations(reservations);
+    }
 }
@@ -7,6 +7,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.FieldNameConstants;
+import org.hibernate.annotations.ColumnDefault;
+import ru.example.booking.cache.ExistenceFilterEntityListener;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -14,7 +16,11 @@ import java.util.Set;
 
 @Data
 @Entity
-@Table(name = "users", uniqueConstraints = {@UniqueConstraint(name = "user_username", columnNames = {"username"})})
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = "user_username", columnNames = {"username"}),
+        @UniqueConstraint(name = "user_email", columnNames = {"email"})
+})
+@EntityListeners(ExistenceFilterEntityListener.class)
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -31,6 +37,10 @@ public class User {
 
     private String email;
 
+    @ColumnDefault("0")
+    @Column(name = "credential_version")
+    private long credentialVersion;
+
     @ElementCollection(targetClass = RoleType.class, fetch = FetchType.EAGER)
     @JoinTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
     @Column(name = "roles", nullable = false)
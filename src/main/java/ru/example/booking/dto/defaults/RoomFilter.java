@@ -1,6 +1,5 @@
 package ru.example.booking.dto.defaults;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,7 +7,6 @@ import lombok.NoArgsConstructor;
 import ru.example.booking.dao.postrgres.RoomDescription;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
 
 @Data
 @NoArgsConstructor
@@ -30,11 +28,5 @@ public class RoomFilter {
 
     private String checkOutDate;
 
-    @JsonIgnore
-    private LocalDate checkInLocalDate;
-
-    @JsonIgnore
-    private LocalDate checkOutLocalDate;
-
     private Long hotelId;
 }
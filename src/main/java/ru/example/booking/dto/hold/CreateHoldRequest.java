@@ -0,0 +1,28 @@
+package ru.example.booking.dto.hold;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CreateHoldRequest {
+
+    @NotNull
+    private Long roomId;
+
+    @NotBlank
+    private String checkInDate;
+
+    @NotBlank
+    private String checkOutDate;
+
+    @Min(value = 1, message = "Minimal hold time is 1 minute")
+    private Integer minutes;
+}
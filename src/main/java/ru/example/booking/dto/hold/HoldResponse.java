@@ -0,0 +1,25 @@
+package ru.example.booking.dto.hold;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HoldResponse {
+
+    private String id;
+
+    private Long roomId;
+
+    private String checkInDate;
+
+    private String checkOutDate;
+
+    private Instant expiresAt;
+}
@@ -21,4 +21,6 @@ public class UpsertReservationRequest {
 
     @NotNull
     private Long roomId;
+
+    private String holdId;
 }
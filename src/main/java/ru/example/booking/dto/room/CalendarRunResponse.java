@@ -0,0 +1,19 @@
+package ru.example.booking.dto.room;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CalendarRunResponse {
+
+    private String fromDate;
+
+    private String toDate;
+
+    private boolean booked;
+}
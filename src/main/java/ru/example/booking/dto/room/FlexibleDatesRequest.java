@@ -0,0 +1,34 @@
+package ru.example.booking.dto.room;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlexibleDatesRequest {
+
+    @NotBlank
+    private String fromDate;
+
+    @NotBlank
+    private String toDate;
+
+    @NotNull
+    @Min(value = 1, message = "Minimal number of nights is 1")
+    @Max(value = 60, message = "Maximal number of nights is 60")
+    private Integer nights;
+
+    @Builder.Default
+    private int pageSize = 10;
+
+    @Builder.Default
+    private int pageNum = 0;
+}
@@ -0,0 +1,19 @@
+package ru.example.booking.dto.room;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlexibleDatesResponse {
+
+    private SimpleRoomResponse room;
+
+    private String checkInDate;
+
+    private String checkOutDate;
+}
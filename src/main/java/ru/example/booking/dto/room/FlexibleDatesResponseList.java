@@ -0,0 +1,19 @@
+package ru.example.booking.dto.room;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlexibleDatesResponseList {
+
+    @Builder.Default
+    private List<FlexibleDatesResponse> rooms = new ArrayList<>();
+}
@@ -0,0 +1,30 @@
+package ru.example.booking.dto.room;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomAvailabilityRequest {
+
+    @Builder.Default
+    @NotEmpty(message = "Room IDs should be specified")
+    @Size(max = 200, message = "Maximum 200 rooms can be checked at once")
+    private List<Long> roomIds = new ArrayList<>();
+
+    @NotBlank
+    private String checkInDate;
+
+    @NotBlank
+    private String checkOutDate;
+}
@@ -0,0 +1,17 @@
+package ru.example.booking.dto.room;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomAvailabilityResponse {
+
+    private Long roomId;
+
+    private boolean available;
+}
@@ -0,0 +1,22 @@
+package ru.example.booking.dto.room;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomAvailabilityResponseList {
+
+    @Builder.Default
+    private List<RoomAvailabilityResponse> rooms = new ArrayList<>();
+
+    @Builder.Default
+    private List<Long> notFoundRoomIds = new ArrayList<>();
+}
@@ -0,0 +1,25 @@
+package ru.example.booking.dto.room;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomCalendarResponse {
+
+    private Long roomId;
+
+    private String fromDate;
+
+    private String toDate;
+
+    @Builder.Default
+    private List<CalendarRunResponse> runs = new ArrayList<>();
+}
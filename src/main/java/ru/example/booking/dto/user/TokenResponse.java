@@ -0,0 +1,21 @@
+package ru.example.booking.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TokenResponse {
+
+    private String accessToken;
+
+    @Builder.Default
+    private String tokenType = "Bearer";
+
+    private Long expiresIn;
+
+}
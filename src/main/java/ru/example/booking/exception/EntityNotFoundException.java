@@ -2,6 +2,6 @@ package ru.example.booking.exception;
 
 public class EntityNotFoundException extends RuntimeException {
     public EntityNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,7 @@
+package ru.example.booking.exception;
+
+public class RoomBusyException extends RuntimeException {
+    public RoomBusyException(String message) {
+        super(message);
+    }
+}
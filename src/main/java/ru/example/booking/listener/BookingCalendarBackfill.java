@@ -0,0 +1,62 @@
+package ru.example.booking.listener;
+
+import com.google.common.collect.Lists;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.example.booking.dao.postrgres.BookingCalendar;
+import ru.example.booking.repository.postgres.ReservationRepository;
+import ru.example.booking.repository.postgres.RoomRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingCalendarBackfill {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final RoomRepository roomRepository;
+
+    private final ReservationRepository reservationRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationStartedEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public void backfill() {
+        List<Long> roomIds = roomRepository.findAllIdsWithoutBookedDates();
+        if (roomIds.isEmpty()) {
+            return;
+        }
+
+        int filled = 0;
+        for (List<Long> batch : Lists.partition(roomIds, BATCH_SIZE)) {
+            Integer batchFilled = transactionTemplate.execute(status -> fill(batch));
+            filled += batchFilled == null ? 0 : batchFilled;
+        }
+        log.info("Booking calendars of {} rooms are rebuilt from reservations", filled);
+    }
+
+    private int fill(List<Long> roomIds) {
+        Map<Long, BookingCalendar> calendars = new HashMap<>();
+        roomIds.forEach(roomId -> calendars.put(roomId, new BookingCalendar()));
+        reservationRepository.findAllStaysByRoomIdIn(roomIds).forEach(
+                stay -> calendars.get(stay.getRoomId()).book(stay.getCheckInDate(), stay.getCheckOutDate())
+        );
+
+        int filled = 0;
+        for (var calendar : calendars.entrySet()) {
+            filled += roomRepository.fillBookedDates(calendar.getKey(), calendar.getValue());
+        }
+        return filled;
+    }
+}
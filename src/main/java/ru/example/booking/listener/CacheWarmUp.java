@@ -0,0 +1,113 @@
+package ru.example.booking.listener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.example.booking.configuration.properties.CacheProperties;
+import ru.example.booking.dto.defaults.FindAllSettings;
+import ru.example.booking.dto.room.SimpleRoomResponse;
+import ru.example.booking.service.HotelService;
+import ru.example.booking.service.RoomService;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheWarmUp {
+
+    private final CacheProperties cacheProperties;
+
+    private final RoomService roomService;
+
+    private final HotelService hotelService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        var settings = cacheProperties.getWarmUp();
+        if (!settings.isEnable()) {
+            return;
+        }
+
+        log.info("Cache warm-up is started");
+        long startedAt = System.nanoTime();
+        var failures = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(settings.getThreads());
+        try {
+            List<CompletableFuture<?>> tasks = new ArrayList<>();
+
+            tasks.add(CompletableFuture.supplyAsync(() -> topRoomIds(settings, failures), executor)
+                    .thenCompose(ids -> CompletableFuture.allOf(ids.stream()
+                            .map(id -> CompletableFuture.runAsync(
+                                    () -> timed(null, failures, () -> roomService.findById(id)), executor))
+                            .toArray(CompletableFuture[]::new))
+                            .thenRun(() -> log.info("Cache warm-up: {} rooms are loaded by id", ids.size()))));
+            tasks.add(CompletableFuture.runAsync(
+                    () -> timed("allHotels", failures, () -> hotelService.findAll()), executor));
+            for (FindAllSettings filter : settings.getRoomFilters()) {
+                tasks.add(CompletableFuture.runAsync(
+                        () -> timed("room filter " + filter, failures, () -> roomService.findAll(filter)), executor));
+            }
+            for (FindAllSettings filter : settings.getHotelFilters()) {
+                tasks.add(CompletableFuture.runAsync(
+                        () -> timed("hotel filter " + filter, failures, () -> hotelService.findAll(filter)), executor));
+            }
+
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0]))
+                    .get(settings.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Cache warm-up did not finish in {}", settings.getTimeout());
+        } catch (Exception e) {
+            log.warn("Cache warm-up was interrupted", e);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        log.info("Cache warm-up is finished in {} ms, failed steps: {}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), failures.get());
+    }
+
+    private List<Long> topRoomIds(CacheProperties.WarmUp settings, AtomicInteger failures) {
+        var rooms = timed("allRooms", failures, () -> roomService.findAll());
+        if (rooms == null) {
+            return List.of();
+        }
+        return rooms.getRooms().stream()
+                .sorted(Comparator.comparing(SimpleRoomResponse::getBookedDatesSize).reversed())
+                .limit(settings.getTopRooms())
+                .map(SimpleRoomResponse::getId)
+                .toList();
+    }
+
+    private <T> T timed(String step, AtomicInteger failures, Supplier<T> action) {
+        long startedAt = System.nanoTime();
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            log.warn("Cache warm-up step {} failed: {}", step, e.getMessage());
+            return null;
+        }
+        if (step != null) {
+            log.info("Cache warm-up: {} is loaded in {} ms", step,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        }
+        return result;
+    }
+}
@@ -6,8 +6,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationStartedEvent;
 import org.springframework.context.annotation.Profile;
 import org.springframework.context.event.EventListener;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import ru.example.booking.concurrency.PasswordHashingExecutor;
 import ru.example.booking.dao.postrgres.*;
 import ru.example.booking.dto.defaults.UploadObject;
 import ru.example.booking.dto.reservation.UpsertReservationRequest;
@@ -39,7 +39,7 @@ public class DevUploader {
 
     private final UserRepository userRepository;
 
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
     @Value("${app.dateFormat}")
     private String datePattern;
@@ -145,7 +145,7 @@ public class DevUploader {
             Collections.shuffle(roles);
             users.add(User.builder()
                     .email("email" + i + "@email.com")
-                    .password(passwordEncoder.encode("pass" + i))
+                    .password(passwordHashingExecutor.encode("pass" + i))
                     .username("user" + i)
                     .roles(Set.of(roles.get(0)))
                     .build());
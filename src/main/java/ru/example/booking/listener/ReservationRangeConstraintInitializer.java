@@ -0,0 +1,42 @@
+package ru.example.booking.listener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnExpression("'${app.booking.databaseConstraint.enable}'.equals('true')")
+@Slf4j
+public class ReservationRangeConstraintInitializer {
+
+    public static final String CONSTRAINT_NAME = "reservations_room_stay_excl";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationStartedEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void createConstraint() {
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+        jdbcTemplate.execute("""
+                ALTER TABLE reservations ADD COLUMN IF NOT EXISTS stay_range daterange
+                GENERATED ALWAYS AS (daterange(check_in_date, check_out_date, '[]')) STORED
+                """);
+        jdbcTemplate.execute("""
+                DO $$
+                BEGIN
+                    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = '%s') THEN
+                        ALTER TABLE reservations ADD CONSTRAINT %s
+                        EXCLUDE USING gist (room_id WITH =, stay_range WITH &&);
+                    END IF;
+                END $$
+                """.formatted(CONSTRAINT_NAME, CONSTRAINT_NAME));
+        log.info("Reservation range exclusion constraint is ready");
+    }
+}
@@ -1,6 +1,8 @@
 package ru.example.booking.mapper;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import ru.example.booking.dao.postrgres.BookingCalendar;
 import ru.example.booking.dao.postrgres.Room;
 import ru.example.booking.dto.room.SimpleRoomResponse;
 import ru.example.booking.dto.room.UpsertRoomRequest;
@@ -11,6 +13,9 @@ public abstract class RoomMapperDelegate implements RoomMapper {
     @Autowired
     private HotelService hotelService;
 
+    @Value("${app.booking.databaseConstraint.enable}")
+    private boolean databaseConstraintEnabled;
+
     @Override
     public SimpleRoomResponse roomToSimpleResponse(Room room) {
         return SimpleRoomResponse.builder()
@@ -21,10 +26,16 @@ public abstract class RoomMapperDelegate implements RoomMapper {
                 .number(room.getNumber())
                 .capacity(room.getCapacity())
                 .description(room.getDescription())
-                .bookedDatesSize(room.getBookedDates().size())
+                .bookedDatesSize(bookedDatesSize(room))
                 .build();
     }
 
+    private int bookedDatesSize(Room room) {
+        return databaseConstraintEnabled
+                ? BookingCalendar.ofReservations(room.getReservations()).size()
+                : room.getBookedDates().size();
+    }
+
     @Override
     public Room requestToRoom(UpsertRoomRequest request) {
         return Room.builder()
@@ -1,11 +1,16 @@
 package ru.example.booking.repository.postgres;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.example.booking.dao.postrgres.Hotel;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface HotelRepository extends JpaRepository<Hotel, Long>, JpaSpecificationExecutor<Hotel> {
@@ -13,4 +18,8 @@ public interface HotelRepository extends JpaRepository<Hotel, Long>, JpaSpecific
     Optional<Hotel> findByName(String name);
 
     boolean existsByName(String name);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select h.name from Hotel h")
+    Stream<String> streamAllNames();
 }
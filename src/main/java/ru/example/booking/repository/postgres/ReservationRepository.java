@@ -1,12 +1,15 @@
 package ru.example.booking.repository.postgres;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.example.booking.dao.postrgres.Reservation;
 import ru.example.booking.dao.postrgres.Room;
 import ru.example.booking.dao.postrgres.User;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -23,4 +26,10 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     Optional<Reservation> findByCheckInDate(LocalDate checkInDate);
 
     Optional<Reservation> findByCheckOutDate(LocalDate checkOutDate);
+
+    List<Reservation> findAllByRoomId(Long roomId);
+
+    @Query("select r.room.id as roomId, r.checkInDate as checkInDate, r.checkOutDate as checkOutDate "
+            + "from Reservation r where r.room.id in :roomIds")
+    List<ReservationStayView> findAllStaysByRoomIdIn(Collection<Long> roomIds);
 }
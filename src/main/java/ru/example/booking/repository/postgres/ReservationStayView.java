@@ -0,0 +1,12 @@
+package ru.example.booking.repository.postgres;
+
+import java.time.LocalDate;
+
+public interface ReservationStayView {
+
+    Long getRoomId();
+
+    LocalDate getCheckInDate();
+
+    LocalDate getCheckOutDate();
+}
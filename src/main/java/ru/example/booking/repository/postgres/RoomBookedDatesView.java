@@ -0,0 +1,10 @@
+package ru.example.booking.repository.postgres;
+
+import ru.example.booking.dao.postrgres.BookingCalendar;
+
+public interface RoomBookedDatesView {
+
+    Long getId();
+
+    BookingCalendar getBookedDates();
+}
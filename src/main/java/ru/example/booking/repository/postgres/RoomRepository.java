@@ -1,11 +1,20 @@
 package ru.example.booking.repository.postgres;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.example.booking.dao.postrgres.BookingCalendar;
 import ru.example.booking.dao.postrgres.Room;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Long>, JpaSpecificationExecutor<Room> {
@@ -13,4 +22,22 @@ public interface RoomRepository extends JpaRepository<Room, Long>, JpaSpecificat
     Optional<Room> findByName(String name);
 
     boolean existsByName(String name);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select r.name from Room r")
+    Stream<String> streamAllNames();
+
+    List<RoomBookedDatesView> findAllByIdIn(Collection<Long> ids);
+
+    List<RoomBookedDatesView> findAllByOrderByIdAsc();
+
+    @Query("select r.id from Room r where r.hotel.id = :hotelId")
+    List<Long> findAllIdsByHotelId(Long hotelId);
+
+    @Query("select r.id from Room r where r.bookedDates is null order by r.id")
+    List<Long> findAllIdsWithoutBookedDates();
+
+    @Modifying
+    @Query("update Room r set r.bookedDates = :bookedDates where r.id = :id and r.bookedDates is null")
+    int fillBookedDates(Long id, BookingCalendar bookedDates);
 }
@@ -16,12 +16,12 @@ import java.util.Date;
 
 public interface RoomSpecification {
 
-    static Specification<Room> withFilter(RoomFilter filter) {
+    static Specification<Room> withFilter(RoomFilter filter, LocalDate checkInDate, LocalDate checkOutDate) {
         return Specification.where(byRoomId(filter.getId()))
                 .and(byRoomDescription(filter.getDescription()))
                 .and(byRoomPrice(filter.getMinPrice(), filter.getMaxPrice()))
                 .and(byRoomCapacity(filter.getCapacity()))
-                .and(byCheckInOutDates(filter.getCheckInLocalDate(), filter.getCheckOutLocalDate()))
+                .and(byCheckInOutDates(checkInDate, checkOutDate))
                 .and(byRoomHotelId(filter.getHotelId()));
     }
 
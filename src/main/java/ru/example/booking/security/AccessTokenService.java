@@ -0,0 +1,131 @@
+package ru.example.booking.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.example.booking.dao.postrgres.RoleType;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class AccessTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final String VERSION = "2";
+
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+
+    private final ThreadLocal<Mac> mac;
+
+    private final Duration ttl;
+
+    public AccessTokenService(@Value("${app.security.token.secret}") String secret,
+                              @Value("${app.security.token.allowRandomSecret}") boolean allowRandomSecret,
+                              @Value("${app.security.token.ttl}") Duration ttl) {
+        this.key = new SecretKeySpec(secretBytes(secret, allowRandomSecret), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+        this.ttl = ttl;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public String issue(Long userId, long credentialVersion, String username, Set<RoleType> roles) {
+        String claims = String.join("|",
+                VERSION,
+                String.valueOf(userId),
+                String.valueOf(credentialVersion),
+                String.valueOf(Instant.now().plus(ttl).getEpochSecond()),
+                roles.stream().map(RoleType::name).sorted().collect(Collectors.joining(",")),
+                username);
+        String payload = ENCODER.encodeToString(claims.getBytes(StandardCharsets.UTF_8));
+        return payload + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    public TokenClaims verify(String token) {
+        int separator = token.indexOf('.');
+        if (separator <= 0 || separator != token.lastIndexOf('.')) {
+            return null;
+        }
+        String payload = token.substring(0, separator);
+        try {
+            byte[] signature = DECODER.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(signature, sign(payload))) {
+                return null;
+            }
+            String[] claims = new String(DECODER.decode(payload), StandardCharsets.UTF_8).split("\\|", 6);
+            if (claims.length != 6 || !VERSION.equals(claims[0])) {
+                return null;
+            }
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(claims[3]));
+            if (!expiresAt.isAfter(Instant.now())) {
+                return null;
+            }
+            return new TokenClaims(Long.valueOf(claims[1]), Long.parseLong(claims[2]), claims[5], roles(claims[4]),
+                    expiresAt);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Set<RoleType> roles(String value) {
+        Set<RoleType> roles = EnumSet.noneOf(RoleType.class);
+        if (!value.isEmpty()) {
+            Arrays.stream(value.split(",")).map(RoleType::valueOf).forEach(roles::add);
+        }
+        return roles;
+    }
+
+    private byte[] sign(String payload) {
+        return mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac hmac = Mac.getInstance(ALGORITHM);
+            hmac.init(key);
+            return hmac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Token signature is not available", e);
+        }
+    }
+
+    private static byte[] secretBytes(String secret, boolean allowRandomSecret) {
+        if (secret == null || secret.isBlank()) {
+            if (!allowRandomSecret) {
+                throw new IllegalStateException("app.security.token.secret is not set, "
+                        + "set it or enable app.security.token.allowRandomSecret for a single local instance");
+            }
+            log.warn("app.security.token.secret is not set, tokens are signed with a random key of this instance");
+            byte[] random = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(random);
+            return random;
+        }
+        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < MIN_SECRET_BYTES) {
+            throw new IllegalArgumentException("app.security.token.secret should be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        return bytes;
+    }
+}
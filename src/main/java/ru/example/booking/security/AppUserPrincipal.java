@@ -4,9 +4,11 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import ru.example.booking.dao.postrgres.RoleType;
 import ru.example.booking.dao.postrgres.User;
 
 import java.util.Collection;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
@@ -14,6 +16,18 @@ public class AppUserPrincipal implements UserDetails {
 
     private final User user;
 
+    public Long getId() {
+        return user.getId();
+    }
+
+    public long getCredentialVersion() {
+        return user.getCredentialVersion();
+    }
+
+    public Set<RoleType> getRoles() {
+        return user.getRoles();
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return user.getRoles().stream()
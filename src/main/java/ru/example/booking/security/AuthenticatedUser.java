@@ -0,0 +1,17 @@
+package ru.example.booking.security;
+
+import ru.example.booking.dao.postrgres.RoleType;
+import ru.example.booking.dao.postrgres.User;
+
+import java.util.Set;
+
+public record AuthenticatedUser(Long id, String username, Set<RoleType> roles) {
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), Set.copyOf(user.getRoles()));
+    }
+
+    public boolean isAdmin() {
+        return roles.contains(RoleType.ROLE_ADMIN);
+    }
+}
@@ -0,0 +1,46 @@
+package ru.example.booking.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.example.booking.exception.EntityNotFoundException;
+import ru.example.booking.repository.postgres.UserRepository;
+
+import java.util.Objects;
+
+@Component
+@RequiredArgsConstructor
+public class AuthenticatedUserResolver {
+
+    private static final String ATTRIBUTE_PREFIX = AuthenticatedUserResolver.class.getName() + ".";
+
+    private final UserRepository userRepository;
+
+    public AuthenticatedUser resolve(String username) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null
+                && authentication.getPrincipal() instanceof AppUserPrincipal principal
+                && principal.getId() != null
+                && Objects.equals(principal.getUsername(), username)) {
+            return new AuthenticatedUser(principal.getId(), principal.getUsername(), principal.getRoles());
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        String attribute = ATTRIBUTE_PREFIX + username;
+        if (attributes != null
+                && attributes.getAttribute(attribute, RequestAttributes.SCOPE_REQUEST) instanceof AuthenticatedUser resolved) {
+            return resolved;
+        }
+
+        var resolved = AuthenticatedUser.of(userRepository.findByUsername(username).orElseThrow(
+                () -> new EntityNotFoundException("User not found, username is " + username)
+        ));
+        if (attributes != null) {
+            attributes.setAttribute(attribute, resolved, RequestAttributes.SCOPE_REQUEST);
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,42 @@
+package ru.example.booking.security;
+
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+public class CachingAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final VerifiedCredentialCache credentialCache;
+
+    public CachingAuthenticationProvider(PasswordEncoder passwordEncoder,
+                                         UserDetailsService userDetailsService,
+                                         VerifiedCredentialCache credentialCache) {
+        super(passwordEncoder);
+        setUserDetailsService(userDetailsService);
+        this.credentialCache = credentialCache;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName();
+        if (username == null || authentication.getCredentials() == null) {
+            return super.authenticate(authentication);
+        }
+        String password = authentication.getCredentials().toString();
+
+        UserDetails verified = credentialCache.find(username, password);
+        if (verified != null) {
+            return createSuccessAuthentication(verified, authentication, verified);
+        }
+
+        long generation = credentialCache.generation();
+        Authentication result = super.authenticate(authentication);
+        if (result.getPrincipal() instanceof UserDetails principal) {
+            credentialCache.remember(username, password, principal, generation);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,53 @@
+package ru.example.booking.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.example.booking.configuration.properties.CacheProperties;
+import ru.example.booking.repository.postgres.UserRepository;
+
+@Component
+public class CredentialVersions {
+
+    private final UserRepository userRepository;
+
+    private final CacheManager cacheManager;
+
+    private final boolean enabled;
+
+    public CredentialVersions(UserRepository userRepository, CacheManager cacheManager,
+                              @Value("${app.cache.enable}") boolean cacheEnabled) {
+        this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
+        this.enabled = cacheEnabled;
+    }
+
+    public boolean isCurrent(Long userId, long credentialVersion) {
+        Long current = find(userId);
+        return current != null && current == credentialVersion;
+    }
+
+    public void invalidate(Long userId) {
+        Cache cache = cache();
+        if (cache != null && userId != null) {
+            cache.evict(userId);
+        }
+    }
+
+    private Long find(Long userId) {
+        Cache cache = cache();
+        if (cache == null) {
+            return load(userId);
+        }
+        return cache.get(userId, () -> load(userId));
+    }
+
+    private Long load(Long userId) {
+        return userRepository.findCredentialVersionById(userId).orElse(null);
+    }
+
+    private Cache cache() {
+        return enabled ? cacheManager.getCache(CacheProperties.CacheNames.CREDENTIAL_VERSIONS) : null;
+    }
+}
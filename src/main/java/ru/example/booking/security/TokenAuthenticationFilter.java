@@ -0,0 +1,47 @@
+package ru.example.booking.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.example.booking.dao.postrgres.User;
+
+import java.io.IOException;
+
+@RequiredArgsConstructor
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final AccessTokenService accessTokenService;
+
+    private final CredentialVersions credentialVersions;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            TokenClaims claims = accessTokenService.verify(header.substring(BEARER.length()).trim());
+            if (claims != null && credentialVersions.isCurrent(claims.userId(), claims.credentialVersion())) {
+                var principal = new AppUserPrincipal(User.builder()
+                        .id(claims.userId())
+                        .credentialVersion(claims.credentialVersion())
+                        .username(claims.username())
+                        .roles(claims.roles())
+                        .build());
+                var authentication = UsernamePasswordAuthenticationToken.authenticated(
+                        principal, null, principal.getAuthorities());
+                var context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authentication);
+                SecurityContextHolder.setContext(context);
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
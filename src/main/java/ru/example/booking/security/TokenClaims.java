@@ -0,0 +1,10 @@
+package ru.example.booking.security;
+
+import ru.example.booking.dao.postrgres.RoleType;
+
+import java.time.Instant;
+import java.util.Set;
+
+public record TokenClaims(Long userId, long credentialVersion, String username, Set<RoleType> roles,
+                          Instant expiresAt) {
+}
@@ -0,0 +1,100 @@
+package ru.example.booking.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import ru.example.booking.configuration.properties.CacheProperties;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class VerifiedCredentialCache {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final CacheManager cacheManager;
+
+    private final boolean enabled;
+
+    private final SecretKeySpec key;
+
+    private final ThreadLocal<Mac> mac;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    public VerifiedCredentialCache(CacheManager cacheManager,
+                                   @Value("${app.cache.enable}") boolean cacheEnabled,
+                                   @Value("${app.security.credentialCache.enable}") boolean enabled) {
+        this.cacheManager = cacheManager;
+        this.enabled = cacheEnabled && enabled;
+
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public UserDetails find(String username, String password) {
+        Cache cache = cache();
+        if (cache == null) {
+            return null;
+        }
+        var verified = cache.get(username, VerifiedCredential.class);
+        if (verified == null || !MessageDigest.isEqual(verified.digest(), digest(username, password))) {
+            return null;
+        }
+        return verified.principal();
+    }
+
+    public void remember(String username, String password, UserDetails principal, long expectedGeneration) {
+        Cache cache = cache();
+        if (cache == null || generation.get() != expectedGeneration) {
+            return;
+        }
+        cache.put(username, new VerifiedCredential(digest(username, password), principal));
+    }
+
+    public void invalidate(String username) {
+        generation.incrementAndGet();
+        Cache cache = cache();
+        if (cache != null && username != null) {
+            cache.evict(username);
+        }
+    }
+
+    private byte[] digest(String username, String password) {
+        Mac hmac = mac.get();
+        hmac.update(username.getBytes(StandardCharsets.UTF_8));
+        hmac.update((byte) 0);
+        return hmac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac hmac = Mac.getInstance(ALGORITHM);
+            hmac.init(key);
+            return hmac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Credential digest is not available", e);
+        }
+    }
+
+    private Cache cache() {
+        return enabled ? cacheManager.getCache(CacheProperties.CacheNames.VERIFIED_CREDENTIALS) : null;
+    }
+
+    private record VerifiedCredential(byte[] digest, UserDetails principal) {
+    }
+}
@@ -0,0 +1,31 @@
+package ru.example.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Service;
+import ru.example.booking.dto.user.LoginRequest;
+import ru.example.booking.dto.user.TokenResponse;
+import ru.example.booking.security.AccessTokenService;
+import ru.example.booking.security.AppUserPrincipal;
+
+@Service
+@RequiredArgsConstructor
+public class AuthenticationService {
+
+    private final AuthenticationManager authenticationManager;
+
+    private final AccessTokenService accessTokenService;
+
+    public TokenResponse login(LoginRequest request) {
+        var authentication = authenticationManager.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(request.getUsername(), request.getPassword()));
+        var principal = (AppUserPrincipal) authentication.getPrincipal();
+
+        return TokenResponse.builder()
+                .accessToken(accessTokenService.issue(principal.getId(), principal.getCredentialVersion(),
+                        principal.getUsername(), principal.getRoles()))
+                .expiresIn(accessTokenService.getTtl().toSeconds())
+                .build();
+    }
+}
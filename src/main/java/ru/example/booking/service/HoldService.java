@@ -0,0 +1,98 @@
+package ru.example.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.example.booking.concurrency.RoomHold;
+import ru.example.booking.concurrency.RoomHoldRegistry;
+import ru.example.booking.concurrency.RoomLockManager;
+import ru.example.booking.configuration.properties.BookingProperties;
+import ru.example.booking.dto.hold.CreateHoldRequest;
+import ru.example.booking.dto.hold.HoldResponse;
+import ru.example.booking.exception.EntityNotFoundException;
+import ru.example.booking.exception.RoomBookingException;
+import ru.example.booking.security.AuthenticatedUserResolver;
+import ru.example.booking.util.LocalDatesUtil;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+public class HoldService {
+
+    private final RoomService roomService;
+
+    private final AuthenticatedUserResolver authenticatedUserResolver;
+
+    private final ValidationService validationService;
+
+    private final RoomHoldRegistry roomHoldRegistry;
+
+    private final RoomLockManager roomLockManager;
+
+    private final BookingProperties bookingProperties;
+
+    @Value("${app.dateFormat}")
+    private String datePattern;
+
+    public HoldResponse hold(CreateHoldRequest request, String username) {
+        var checkInDate = LocalDatesUtil.strDateToLocalDate(request.getCheckInDate(), datePattern);
+        var checkOutDate = LocalDatesUtil.strDateToLocalDate(request.getCheckOutDate(), datePattern);
+        roomService.validateDates(checkInDate, checkOutDate);
+
+        var hold = roomLockManager.executeLocked(request.getRoomId(), () -> {
+            var room = roomService.findRoomById(request.getRoomId());
+            if (roomService.hasOverlappingReservation(room, checkInDate, checkOutDate)
+                    || roomHoldRegistry.isHeld(room.getId(), checkInDate, checkOutDate)) {
+                throw new RoomBookingException("This dates is unavailable");
+            }
+            return roomHoldRegistry.hold(room.getId(), checkInDate, checkOutDate, username, holdTtl(request));
+        });
+
+        return toResponse(hold);
+    }
+
+    public void release(String holdId, String username) {
+        var hold = roomHoldRegistry.find(holdId).orElseThrow(
+                () -> new EntityNotFoundException("Hold is not found, ID is " + holdId)
+        );
+
+        validationService.isValidAction(authenticatedUserResolver.resolve(username),
+                authenticatedUserResolver.resolve(hold.username()).id());
+
+        roomHoldRegistry.release(holdId);
+    }
+
+    public RoomHold findHoldForBooking(String holdId, String username, Long roomId,
+                                       LocalDate checkInDate, LocalDate checkOutDate) {
+        return roomHoldRegistry.find(holdId)
+                .filter(hold -> Objects.equals(hold.username(), username))
+                .filter(hold -> Objects.equals(hold.roomId(), roomId))
+                .filter(hold -> hold.covers(checkInDate, checkOutDate))
+                .orElseThrow(() -> new RoomBookingException("Hold is not found or expired"));
+    }
+
+    public void complete(RoomHold hold) {
+        if (hold != null) {
+            roomHoldRegistry.release(hold.id());
+        }
+    }
+
+    private Duration holdTtl(CreateHoldRequest request) {
+        var settings = bookingProperties.getHold();
+        if (request.getMinutes() == null) {
+            return settings.getDefaultTtl();
+        }
+        var requested = Duration.ofMinutes(request.getMinutes());
+        return requested.compareTo(settings.getMaxTtl()) > 0 ? settings.getMaxTtl() : requested;
+    }
+
+    private HoldResponse toResponse(RoomHold hold) {
+        return new HoldResponse(hold.id(), hold.roomId(),
+                LocalDatesUtil.localDateToStr(hold.checkInDate(), datePattern),
+                LocalDatesUtil.localDateToStr(hold.checkOutDate(), datePattern),
+                hold.expiresAt());
+    }
+}
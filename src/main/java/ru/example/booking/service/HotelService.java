@@ -1,8 +1,17 @@
 package ru.example.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import ru.example.booking.cache.ExistenceFilter;
+import ru.example.booking.cache.NegativeLookupCache;
+import ru.example.booking.cache.RoomFilterCacheIndex;
+import ru.example.booking.concurrency.OptimisticRetryExecutor;
+import ru.example.booking.configuration.properties.CacheProperties;
 import ru.example.booking.dao.postrgres.Hotel;
 import ru.example.booking.dao.postrgres.Room;
 import ru.example.booking.dto.defaults.FindAllSettings;
@@ -15,8 +24,11 @@ import ru.example.booking.exception.EntityNotFoundException;
 import ru.example.booking.mapper.HotelMapper;
 import ru.example.booking.repository.postgres.HotelRepository;
 import ru.example.booking.repository.postgres.HotelSpecification;
+import ru.example.booking.repository.postgres.RoomRepository;
 import ru.example.booking.util.BeanUtils;
 
+import java.util.function.Supplier;
+
 
 @Service
 @RequiredArgsConstructor
@@ -24,8 +36,20 @@ public class HotelService {
 
     private final HotelRepository hotelRepository;
 
+    private final RoomRepository roomRepository;
+
     private final HotelMapper hotelMapper;
 
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+
+    private final NegativeLookupCache negativeLookupCache;
+
+    private final ExistenceFilter existenceFilter;
+
+    private final RoomFilterCacheIndex roomFilterCacheIndex;
+
+    @Cacheable(cacheNames = CacheProperties.CacheNames.ALL_HOTELS_WITH_FILTER, keyGenerator = "hotelFilterKeyGenerator",
+            sync = true)
     public HotelResponseList findAll(FindAllSettings settings) {
         return hotelMapper.hotelListToResponseList(
                 hotelRepository.findAll(HotelSpecification.withFilter(settings.getHotelFilter()),
@@ -33,69 +57,133 @@ public class HotelService {
         );
     }
 
+    @Cacheable(cacheNames = CacheProperties.CacheNames.ALL_HOTELS, sync = true)
     public HotelResponseList findAll() {
         return hotelMapper.hotelListToResponseList(hotelRepository.findAll());
     }
 
+    @Cacheable(cacheNames = CacheProperties.CacheNames.HOTEL_BY_ID, key = "#id")
     public HotelResponse findById(Long id) {
         return hotelMapper.hotelToResponse(findHotelById(id));
     }
 
+    @Cacheable(cacheNames = CacheProperties.CacheNames.HOTEL_BY_NAME, key = "#name")
     public HotelResponse findByName(String name) {
-        var hotel = hotelRepository.findByName(name).orElseThrow(
-                () -> new EntityNotFoundException("Hotel not found, name is " + name)
-        );
+        if (negativeLookupCache.isMissing(NegativeLookupCache.HOTEL_NAME, name)) {
+            throw new EntityNotFoundException("Hotel not found, name is " + name);
+        }
+        var hotel = hotelRepository.findByName(name).orElseThrow(() -> {
+            negativeLookupCache.markMissing(NegativeLookupCache.HOTEL_NAME, name);
+            return new EntityNotFoundException("Hotel not found, name is " + name);
+        });
         return hotelMapper.hotelToResponse(hotel);
     }
 
+    @Caching(evict = {
+            @CacheEvict(value = CacheProperties.CacheNames.ALL_HOTELS, allEntries = true),
+            @CacheEvict(value = CacheProperties.CacheNames.ALL_HOTELS_WITH_FILTER, allEntries = true),
+            @CacheEvict(value = CacheProperties.CacheNames.HOTEL_BY_ID, key = "#id"),
+            @CacheEvict(value = CacheProperties.CacheNames.HOTEL_BY_NAME, allEntries = true)
+    })
     public HotelResponse updateById(Long id, UpdateHotelRequest hotel) {
         if (!hotelRepository.existsById(id)) {
             throw new EntityNotFoundException("Hotel not found, ID is " + id);
         }
-        Hotel existedHotel = findHotelById(id);
-        BeanUtils.copyNonNullProperties(hotelMapper.updateRequestToHotel(hotel), existedHotel);
+        var response = saveUnique(hotel.getName(), () -> optimisticRetryExecutor.execute("hotel.update", () -> {
+            Hotel existedHotel = findHotelById(id);
+            BeanUtils.copyNonNullProperties(hotelMapper.updateRequestToHotel(hotel), existedHotel);
+
+            return hotelMapper.hotelToResponse(hotelRepository.save(existedHotel));
+        }));
 
-        return hotelMapper.hotelToResponse(hotelRepository.save(existedHotel));
+        negativeLookupCache.forget(NegativeLookupCache.HOTEL_NAME, response.getName());
+        return response;
     }
 
+    @Caching(evict = {
+            @CacheEvict(value = CacheProperties.CacheNames.ALL_HOTELS, allEntries = true),
+            @CacheEvict(value = CacheProperties.CacheNames.ALL_HOTELS_WITH_FILTER, allEntries = true)
+    })
     public HotelResponse save(CreateHotelRequest hotel) {
-        if (hotelRepository.existsByName(hotel.getName())) {
+        if (existenceFilter.mightContain(ExistenceFilter.Kind.HOTEL_NAME, hotel.getName())
+                && hotelRepository.existsByName(hotel.getName())) {
             throw new EntityAlreadyExists("Hotel with name \"" + hotel.getName() + "\" is already exists");
         }
-        return hotelMapper.hotelToResponse(hotelRepository.save(hotelMapper.createRequestToHotel(hotel)));
+        var response = saveUnique(hotel.getName(),
+                () -> hotelMapper.hotelToResponse(hotelRepository.save(hotelMapper.createRequestToHotel(hotel))));
+
+        negativeLookupCache.forget(NegativeLookupCache.HOTEL_ID, response.getId());
+        negativeLookupCache.forget(NegativeLookupCache.HOTEL_NAME, response.getName());
+        return response;
     }
 
+    @Caching(evict = {
+            @CacheEvict(value = CacheProperties.CacheNames.ALL_HOTELS, allEntries = true),
+            @CacheEvict(value = CacheProperties.CacheNames.ALL_HOTELS_WITH_FILTER, allEntries = true),
+            @CacheEvict(value = CacheProperties.CacheNames.HOTEL_BY_ID, key = "#id"),
+            @CacheEvict(value = CacheProperties.CacheNames.HOTEL_BY_NAME, allEntries = true),
+            @CacheEvict(value = CacheProperties.CacheNames.ALL_ROOMS, allEntries = true),
+            @CacheEvict(value = CacheProperties.CacheNames.ROOM_BY_ID, allEntries = true),
+            @CacheEvict(value = CacheProperties.CacheNames.ROOM_CALENDAR, allEntries = true)
+    })
     public void deleteById(Long id) {
         if (!hotelRepository.existsById(id)) {
             throw new EntityNotFoundException("Hotel not found, ID is " + id);
         }
+        var roomIds = roomRepository.findAllIdsByHotelId(id);
         hotelRepository.deleteById(id);
+
+        roomIds.forEach(roomId -> roomFilterCacheIndex.evictRoomChange(roomId, id));
     }
 
+    @Caching(evict = {
+            @CacheEvict(value = CacheProperties.CacheNames.ALL_HOTELS, allEntries = true),
+            @CacheEvict(value = CacheProperties.CacheNames.ALL_HOTELS_WITH_FILTER, allEntries = true),
+            @CacheEvict(value = CacheProperties.CacheNames.HOTEL_BY_ID, key = "#hotelId"),
+            @CacheEvict(value = CacheProperties.CacheNames.HOTEL_BY_NAME, key = "#result.name")
+    })
     public HotelResponse updateRating(Long hotelId, int newRating) {
-        Hotel existedHotel = findHotelById(hotelId);
+        var response = optimisticRetryExecutor.execute("hotel.updateRating", () -> {
+            Hotel existedHotel = findHotelById(hotelId);
+
+            float newTotalRating = existedHotel.getRating() * existedHotel.getNumberOfRatings() + newRating;
+            int newNumberOfRatings = existedHotel.getNumberOfRatings() + 1;
+            float newHotelRating = newTotalRating / (float) newNumberOfRatings;
 
-        float newTotalRating = existedHotel.getRating() * existedHotel.getNumberOfRatings() + newRating;
-        int newNumberOfRatings = existedHotel.getNumberOfRatings() + 1;
-        float newHotelRating = newTotalRating / (float) newNumberOfRatings;
+            existedHotel.setNumberOfRatings(newNumberOfRatings);
+            existedHotel.setRating(newHotelRating);
 
-        existedHotel.setNumberOfRatings(newNumberOfRatings);
-        existedHotel.setRating(newHotelRating);
+            return hotelMapper.hotelToResponse(hotelRepository.save(existedHotel));
+        });
 
-        return hotelMapper.hotelToResponse(hotelRepository.save(existedHotel));
+        return response;
     }
 
     public Hotel findHotelById(Long id) {
-        return hotelRepository.findById(id).orElseThrow(
-                () -> new EntityNotFoundException("Hotel not found, ID is " + id)
-        );
+        if (negativeLookupCache.isMissing(NegativeLookupCache.HOTEL_ID, id)) {
+            throw new EntityNotFoundException("Hotel not found, ID is " + id);
+        }
+        return hotelRepository.findById(id).orElseThrow(() -> {
+            negativeLookupCache.markMissing(NegativeLookupCache.HOTEL_ID, id);
+            return new EntityNotFoundException("Hotel not found, ID is " + id);
+        });
     }
 
     public void addRoom(Room room) {
-        var existedHotel = findHotelById(room.getHotel().getId());
-        var rooms = existedHotel.getRooms();
-        rooms.add(room);
-        existedHotel.setRooms(rooms);
-        hotelRepository.save(existedHotel);
+        optimisticRetryExecutor.run("hotel.addRoom", () -> {
+            var existedHotel = findHotelById(room.getHotel().getId());
+            var rooms = existedHotel.getRooms();
+            rooms.add(room);
+            existedHotel.setRooms(rooms);
+            hotelRepository.save(existedHotel);
+        });
+    }
+
+    private <T> T saveUnique(String name, Supplier<T> save) {
+        try {
+            return save.get();
+        } catch (DataIntegrityViolationException e) {
+            throw new EntityAlreadyExists("Hotel with name \"" + name + "\" is already exists");
+        }
     }
 }
@@ -2,8 +2,12 @@ package ru.example.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import ru.example.booking.concurrency.RoomBookingBatcher;
+import ru.example.booking.concurrency.RoomHold;
+import ru.example.booking.concurrency.RoomLockManager;
 import ru.example.booking.dao.postrgres.Reservation;
 import ru.example.booking.dto.reservation.ReservationResponse;
 import ru.example.booking.dto.reservation.ReservationResponseList;
@@ -12,9 +16,12 @@ import ru.example.booking.exception.EntityNotFoundException;
 import ru.example.booking.exception.RoomBookingException;
 import ru.example.booking.mapper.ReservationMapper;
 import ru.example.booking.repository.postgres.ReservationRepository;
+import ru.example.booking.security.AuthenticatedUserResolver;
 import ru.example.booking.util.BeanUtils;
+import ru.example.booking.util.LocalDatesUtil;
 
 import java.time.Instant;
+import java.util.Arrays;
 
 @Service
 @RequiredArgsConstructor
@@ -28,16 +35,30 @@ public class ReservationService {
 
     private final ValidationService validationService;
 
+    private final AuthenticatedUserResolver authenticatedUserResolver;
+
     private final ReservationMapper reservationMapper;
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
+    private final RoomLockManager roomLockManager;
+
+    private final RoomBookingBatcher roomBookingBatcher;
+
+    private final HoldService holdService;
+
     @Value("${app.kafka.reservationTopic}")
     private String kafkaTopic;
 
     @Value("${app.dateFormat}")
     private String datePattern;
 
+    @Value("${app.booking.databaseConstraint.enable}")
+    private boolean databaseConstraintEnabled;
+
+    @Value("${app.booking.batching.enable}")
+    private boolean batchingEnabled;
+
     public ReservationResponseList findAll() {
         return reservationMapper.reservationListToResponseList(reservationRepository.findAll(), datePattern);
     }
@@ -46,18 +67,30 @@ public class ReservationService {
 
         var reservation = findReservationById(id);
 
-        validationService.isValidAction(userService.findByUsernameWithoutPrivilegeValidation(username),
+        validationService.isValidAction(authenticatedUserResolver.resolve(username),
                 reservation.getUser());
 
         return reservationMapper.reservationToResponse(reservation, datePattern);
     }
 
     public ReservationResponse booking(UpsertReservationRequest request, String username) {
+        if (databaseConstraintEnabled) {
+            return bookingWithDatabaseConstraint(request, username);
+        }
+        if (batchingEnabled) {
+            return bookingWithBatching(request, username);
+        }
+
         var reservation = reservationMapper.requestToReservation(request, datePattern);
-        roomService.addReservation(reservation);
         reservation.setUser(userService.findByUsernameWithoutPrivilegeValidation(username));
 
-        var savedReservation = reservationRepository.save(reservation);
+        var savedReservation = roomLockManager.executeLocked(request.getRoomId(), () -> {
+            var hold = findHold(request, reservation);
+            roomService.addReservation(reservation);
+            var saved = reservationRepository.save(reservation);
+            holdService.complete(hold);
+            return saved;
+        });
 
         kafkaTemplate.send(kafkaTopic, reservationMapper.reservationToEvent(savedReservation, Instant.now()));
 
@@ -67,11 +100,20 @@ public class ReservationService {
     public void cancel(Long id, String username) {
         Reservation reservationForRemoving = findReservationById(id);
 
-        validationService.isValidAction(userService.findByUsernameWithoutPrivilegeValidation(username),
+        validationService.isValidAction(authenticatedUserResolver.resolve(username),
                 reservationForRemoving.getUser());
 
-        roomService.deleteReservation(reservationForRemoving);
-        reservationRepository.deleteById(id);
+        if (databaseConstraintEnabled) {
+            reservationRepository.deleteById(id);
+            roomService.reservationChanged(reservationForRemoving.getRoom().getId(),
+                    reservationForRemoving.getCheckInDate(), reservationForRemoving.getCheckOutDate());
+            return;
+        }
+
+        roomLockManager.runLocked(reservationForRemoving.getRoom().getId(), () -> {
+            roomService.deleteReservation(reservationForRemoving);
+            reservationRepository.deleteById(id);
+        });
     }
 
     public ReservationResponse update(Long id, UpsertReservationRequest request, String username) {
@@ -79,24 +121,32 @@ public class ReservationService {
 
         var updatedReservation = reservationMapper.requestToReservation(request, datePattern);
 
-        validationService.isValidAction(userService.findByUsernameWithoutPrivilegeValidation(username),
+        validationService.isValidAction(authenticatedUserResolver.resolve(username),
                 existedReservation.getUser());
 
-        var roomBookedDays = updatedReservation.getRoom().getBookedDates();
-        var newBookingDays = roomService.getDateList(updatedReservation.getCheckInDate(),
-                updatedReservation.getCheckOutDate());
-
-        if (!roomService.isAvailableDates(roomBookedDays, newBookingDays)) {
-            throw new RoomBookingException("This dates is unavailable");
+        if (databaseConstraintEnabled) {
+            return updateWithDatabaseConstraint(existedReservation, updatedReservation);
         }
 
-        roomService.deleteReservation(existedReservation);
+        var roomIds = Arrays.asList(existedReservation.getRoom().getId(), request.getRoomId());
 
-        BeanUtils.copyNonNullProperties(updatedReservation, existedReservation);
+        var savedReservation = roomLockManager.executeLocked(roomIds, () -> {
+            var targetRoom = roomService.findRoomById(updatedReservation.getRoom().getId());
+            if (roomService.hasOverlappingReservation(targetRoom, updatedReservation.getCheckInDate(),
+                    updatedReservation.getCheckOutDate(), existedReservation.getId())) {
+                throw new RoomBookingException("This dates is unavailable");
+            }
+
+            roomService.deleteReservation(existedReservation);
 
-        roomService.addReservation(existedReservation);
+            BeanUtils.copyNonNullProperties(updatedReservation, existedReservation);
 
-        return reservationMapper.reservationToResponse(reservationRepository.save(existedReservation), datePattern);
+            roomService.addReservation(existedReservation);
+
+            return reservationRepository.save(existedReservation);
+        });
+
+        return reservationMapper.reservationToResponse(savedReservation, datePattern);
     }
 
     public Reservation findReservationById(Long id) {
@@ -105,4 +155,78 @@ public class ReservationService {
         );
     }
 
+    private ReservationResponse bookingWithDatabaseConstraint(UpsertReservationRequest request, String username) {
+        var checkInDate = LocalDatesUtil.strDateToLocalDate(request.getCheckInDate(), datePattern);
+        var checkOutDate = LocalDatesUtil.strDateToLocalDate(request.getCheckOutDate(), datePattern);
+        roomService.validateDates(checkInDate, checkOutDate);
+
+        var reservation = Reservation.builder()
+                .room(roomService.findRoomReferenceById(request.getRoomId()))
+                .user(userService.findByUsernameWithoutPrivilegeValidation(username))
+                .checkInDate(checkInDate)
+                .checkOutDate(checkOutDate)
+                .build();
+
+        var hold = findHold(request, reservation);
+        roomService.validateNotHeld(request.getRoomId(), checkInDate, checkOutDate, username);
+
+        Reservation savedReservation;
+        try {
+            savedReservation = reservationRepository.saveAndFlush(reservation);
+        } catch (DataIntegrityViolationException e) {
+            throw new RoomBookingException("This dates is unavailable");
+        }
+        roomService.reservationChanged(request.getRoomId(), checkInDate, checkOutDate);
+        holdService.complete(hold);
+
+        kafkaTemplate.send(kafkaTopic, reservationMapper.reservationToEvent(savedReservation, Instant.now()));
+
+        return reservationMapper.reservationToResponse(savedReservation, datePattern);
+    }
+
+    private ReservationResponse updateWithDatabaseConstraint(Reservation existedReservation,
+                                                             Reservation updatedReservation) {
+        var previousRoomId = existedReservation.getRoom().getId();
+        var previousCheckInDate = existedReservation.getCheckInDate();
+        var previousCheckOutDate = existedReservation.getCheckOutDate();
+
+        BeanUtils.copyNonNullProperties(updatedReservation, existedReservation);
+
+        var roomId = existedReservation.getRoom().getId();
+        roomService.validateDates(existedReservation.getCheckInDate(), existedReservation.getCheckOutDate());
+        roomService.validateNotHeld(roomId, existedReservation.getCheckInDate(), existedReservation.getCheckOutDate(),
+                existedReservation.getUser() == null ? null : existedReservation.getUser().getUsername());
+
+        Reservation savedReservation;
+        try {
+            savedReservation = reservationRepository.saveAndFlush(existedReservation);
+        } catch (DataIntegrityViolationException e) {
+            throw new RoomBookingException("This dates is unavailable");
+        }
+        roomService.reservationChanged(previousRoomId, previousCheckInDate, previousCheckOutDate);
+        roomService.reservationChanged(roomId, savedReservation.getCheckInDate(), savedReservation.getCheckOutDate());
+
+        return reservationMapper.reservationToResponse(savedReservation, datePattern);
+    }
+
+    private ReservationResponse bookingWithBatching(UpsertReservationRequest request, String username) {
+        var reservation = reservationMapper.requestToReservation(request, datePattern);
+        reservation.setUser(userService.findByUsernameWithoutPrivilegeValidation(username));
+
+        var hold = findHold(request, reservation);
+        var savedReservation = roomBookingBatcher.book(reservation);
+        holdService.complete(hold);
+
+        kafkaTemplate.send(kafkaTopic, reservationMapper.reservationToEvent(savedReservation, Instant.now()));
+
+        return reservationMapper.reservationToResponse(savedReservation, datePattern);
+    }
+
+    private RoomHold findHold(UpsertReservationRequest request, Reservation reservation) {
+        if (request.getHoldId() == null) {
+            return null;
+        }
+        return holdService.findHoldForBooking(request.getHoldId(), reservation.getUser().getUsername(),
+                request.getRoomId(), reservation.getCheckInDate(), reservation.getCheckOutDate());
+    }
 }
@@ -6,12 +6,31 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.example.booking.cache.ExistenceFilter;
+import ru.example.booking.cache.FilterQueryKey;
+import ru.example.booking.cache.NegativeLookupCache;
+import ru.example.booking.cache.RoomFilterCacheIndex;
+import ru.example.booking.concurrency.BookingOutcome;
+import ru.example.booking.concurrency.OptimisticRetryExecutor;
+import ru.example.booking.concurrency.RoomHoldRegistry;
+import ru.example.booking.concurrency.RoomLockManager;
 import ru.example.booking.configuration.properties.CacheProperties;
+import ru.example.booking.dao.postrgres.BookingCalendar;
 import ru.example.booking.dao.postrgres.Reservation;
 import ru.example.booking.dao.postrgres.Room;
 import ru.example.booking.dto.defaults.FindAllSettings;
+import ru.example.booking.dto.room.CalendarRunResponse;
+import ru.example.booking.dto.room.FlexibleDatesRequest;
+import ru.example.booking.dto.room.FlexibleDatesResponse;
+import ru.example.booking.dto.room.FlexibleDatesResponseList;
+import ru.example.booking.dto.room.RoomAvailabilityRequest;
+import ru.example.booking.dto.room.RoomAvailabilityResponse;
+import ru.example.booking.dto.room.RoomAvailabilityResponseList;
+import ru.example.booking.dto.room.RoomCalendarResponse;
 import ru.example.booking.dto.room.RoomResponseList;
 import ru.example.booking.dto.room.SimpleRoomResponse;
 import ru.example.booking.dto.room.UpsertRoomRequest;
@@ -19,16 +38,23 @@ import ru.example.booking.exception.EntityAlreadyExists;
 import ru.example.booking.exception.EntityNotFoundException;
 import ru.example.booking.exception.RoomBookingException;
 import ru.example.booking.mapper.RoomMapper;
+import ru.example.booking.repository.postgres.ReservationRepository;
+import ru.example.booking.repository.postgres.RoomBookedDatesView;
 import ru.example.booking.repository.postgres.RoomRepository;
 import ru.example.booking.repository.postgres.RoomSpecification;
 import ru.example.booking.util.BeanUtils;
+import ru.example.booking.util.DateRangeIndex;
 import ru.example.booking.util.LocalDatesUtil;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -37,30 +63,54 @@ public class RoomService {
 
     private final RoomRepository roomRepository;
 
+    private final ReservationRepository reservationRepository;
+
     private final HotelService hotelService;
 
     private final RoomMapper roomMapper;
 
+    private final RoomLockManager roomLockManager;
+
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final RoomHoldRegistry roomHoldRegistry;
+
+    private final RoomFilterCacheIndex roomFilterCacheIndex;
+
+    private final NegativeLookupCache negativeLookupCache;
+
+    private final ExistenceFilter existenceFilter;
+
     @Value("${app.dateFormat}")
     private String datePattern;
 
-    @Cacheable(cacheNames = CacheProperties.CacheNames.ALL_ROOMS)
+    @Value("${app.booking.calendar.horizonMonths}")
+    private int calendarHorizonMonths;
+
+    @Value("${app.booking.databaseConstraint.enable}")
+    private boolean databaseConstraintEnabled;
+
+    @Cacheable(cacheNames = CacheProperties.CacheNames.ALL_ROOMS, sync = true)
     public RoomResponseList findAll() {
         return roomMapper.roomListToResponseList(roomRepository.findAll());
     }
 
-    @Cacheable(cacheNames = CacheProperties.CacheNames.ALL_ROOMS_WITH_FILTER, key = "#settings")
+    @Cacheable(cacheNames = CacheProperties.CacheNames.ALL_ROOMS_WITH_FILTER, keyGenerator = "roomFilterKeyGenerator")
     public RoomResponseList findAll(FindAllSettings settings) {
+        var key = FilterQueryKey.forRooms(settings, datePattern);
+        long indexGeneration = roomFilterCacheIndex.generation();
 
-        if (settings.getRoomFilter().getCheckInDate() != null && settings.getRoomFilter().getCheckOutDate() != null) {
-            settings.getRoomFilter().setCheckInLocalDate(LocalDatesUtil.strDateToLocalDate(settings.getRoomFilter().getCheckInDate(), datePattern));
-            settings.getRoomFilter().setCheckOutLocalDate(LocalDatesUtil.strDateToLocalDate(settings.getRoomFilter().getCheckOutDate(), datePattern));
-        }
-
-        return roomMapper.roomListToResponseList(
-                roomRepository.findAll(RoomSpecification.withFilter(settings.getRoomFilter()),
+        var response = roomMapper.roomListToResponseList(
+                roomRepository.findAll(RoomSpecification.withFilter(settings.getRoomFilter(),
+                                key.get(FilterQueryKey.CHECK_IN, LocalDate.class),
+                                key.get(FilterQueryKey.CHECK_OUT, LocalDate.class)),
                         PageRequest.of(settings.getPageNum(), settings.getPageSize())).getContent()
         );
+
+        roomFilterCacheIndex.register(key, response, indexGeneration);
+        return response;
     }
 
     @Cacheable(cacheNames = CacheProperties.CacheNames.ROOM_BY_ID, key = "#id")
@@ -68,23 +118,111 @@ public class RoomService {
         return roomMapper.roomToSimpleResponse(findRoomById(id));
     }
 
+    @Cacheable(cacheNames = CacheProperties.CacheNames.ROOM_CALENDAR, key = "#id")
+    public RoomCalendarResponse findCalendar(Long id) {
+        var bookedDates = bookedDatesOf(findRoomById(id));
+        var fromDate = LocalDate.now();
+        var toDate = fromDate.plusMonths(calendarHorizonMonths).minusDays(1);
+
+        List<CalendarRunResponse> runs = new ArrayList<>();
+        var runStart = fromDate;
+        while (!runStart.isAfter(toDate)) {
+            boolean booked = bookedDates.isBooked(runStart);
+            var nextRunStart = booked ? bookedDates.nextFreeDate(runStart) : bookedDates.nextBookedDate(runStart);
+            var runEnd = nextRunStart == null || nextRunStart.isAfter(toDate) ? toDate : nextRunStart.minusDays(1);
+            runs.add(new CalendarRunResponse(LocalDatesUtil.localDateToStr(runStart, datePattern),
+                    LocalDatesUtil.localDateToStr(runEnd, datePattern), booked));
+            runStart = runEnd.plusDays(1);
+        }
+
+        return new RoomCalendarResponse(id, LocalDatesUtil.localDateToStr(fromDate, datePattern),
+                LocalDatesUtil.localDateToStr(toDate, datePattern), runs);
+    }
+
     public Room findRoomById(Long id) {
-        return roomRepository.findById(id).orElseThrow(
-                () -> new EntityNotFoundException("Room not found, ID is " + id)
+        if (negativeLookupCache.isMissing(NegativeLookupCache.ROOM_ID, id)) {
+            throw new EntityNotFoundException("Room not found, ID is " + id);
+        }
+        return roomRepository.findById(id).orElseThrow(() -> {
+            negativeLookupCache.markMissing(NegativeLookupCache.ROOM_ID, id);
+            return new EntityNotFoundException("Room not found, ID is " + id);
+        });
+    }
+
+    public RoomAvailabilityResponseList checkAvailability(RoomAvailabilityRequest request) {
+        var checkInDate = LocalDatesUtil.strDateToLocalDate(request.getCheckInDate(), datePattern);
+        var checkOutDate = LocalDatesUtil.strDateToLocalDate(request.getCheckOutDate(), datePattern);
+        validateDates(checkInDate, checkOutDate);
+
+        var requestedIds = new LinkedHashSet<>(request.getRoomIds());
+        var bookedDatesById = bookedDatesById(roomRepository.findAllByIdIn(requestedIds));
+
+        var response = new RoomAvailabilityResponseList();
+        for (Long roomId : requestedIds) {
+            var bookedDates = bookedDatesById.get(roomId);
+            if (bookedDates == null) {
+                response.getNotFoundRoomIds().add(roomId);
+            } else {
+                response.getRooms().add(new RoomAvailabilityResponse(roomId,
+                        isAvailableDates(roomId, bookedDates, checkInDate, checkOutDate)));
+            }
+        }
+        return response;
+    }
+
+    public FlexibleDatesResponseList findFlexibleDates(FlexibleDatesRequest request) {
+        var fromDate = LocalDatesUtil.strDateToLocalDate(request.getFromDate(), datePattern);
+        var toDate = LocalDatesUtil.strDateToLocalDate(request.getToDate(), datePattern);
+        validateDates(fromDate, toDate);
+
+        var rooms = roomRepository.findAllByOrderByIdAsc();
+        var bookedDatesById = bookedDatesById(rooms);
+
+        List<Map.Entry<Long, LocalDate>> windows = new ArrayList<>();
+        for (var room : rooms) {
+            var checkInDate = bookedDatesById.get(room.getId()).findFreeWindow(fromDate, toDate, request.getNights());
+            if (checkInDate != null) {
+                windows.add(Map.entry(room.getId(), checkInDate));
+            }
+        }
+        windows.sort(Map.Entry.<Long, LocalDate>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+
+        var page = windows.stream()
+                .skip((long) request.getPageNum() * request.getPageSize())
+                .limit(request.getPageSize())
+                .toList();
+
+        Map<Long, Room> roomsById = new HashMap<>();
+        roomRepository.findAllById(page.stream().map(Map.Entry::getKey).toList()).forEach(
+                room -> roomsById.put(room.getId(), room)
         );
+
+        var response = new FlexibleDatesResponseList();
+        for (var window : page) {
+            response.getRooms().add(new FlexibleDatesResponse(
+                    roomMapper.roomToSimpleResponse(roomsById.get(window.getKey())),
+                    LocalDatesUtil.localDateToStr(window.getValue(), datePattern),
+                    LocalDatesUtil.localDateToStr(window.getValue().plusDays(request.getNights() - 1), datePattern)
+            ));
+        }
+        return response;
     }
 
     public SimpleRoomResponse findByName(String name) {
-        var room = roomRepository.findByName(name).orElseThrow(
-                () -> new EntityNotFoundException("Room not found, name is " + name)
-        );
+        if (negativeLookupCache.isMissing(NegativeLookupCache.ROOM_NAME, name)) {
+            throw new EntityNotFoundException("Room not found, name is " + name);
+        }
+        var room = roomRepository.findByName(name).orElseThrow(() -> {
+            negativeLookupCache.markMissing(NegativeLookupCache.ROOM_NAME, name);
+            return new EntityNotFoundException("Room not found, name is " + name);
+        });
         return roomMapper.roomToSimpleResponse(room);
     }
 
     @Caching(evict = {
             @CacheEvict(value = CacheProperties.CacheNames.ALL_ROOMS, allEntries = true),
-            @CacheEvict(value = CacheProperties.CacheNames.ALL_ROOMS_WITH_FILTER, allEntries = true),
-            @CacheEvict(value = CacheProperties.CacheNames.ROOM_BY_ID, allEntries = true)
+            @CacheEvict(value = CacheProperties.CacheNames.ROOM_BY_ID, key = "#id"),
+            @CacheEvict(value = CacheProperties.CacheNames.ROOM_CALENDAR, key = "#id")
     })
     public SimpleRoomResponse updateById(Long id, UpsertRoomRequest request) {
         if (!roomRepository.existsById(id)) {
@@ -93,116 +231,178 @@ public class RoomService {
 
         validateRoomName(request.getName());
 
-        Room existedRoom = findRoomById(id);
-        Room updatedRoom = roomMapper.requestToRoom(request);
-        BeanUtils.copyNonNullProperties(updatedRoom, existedRoom);
+        Long previousHotelId = findRoomById(id).getHotel().getId();
+        var response = saveUnique(request.getName(), () -> optimisticRetryExecutor.execute("room.update", () -> {
+            Room existedRoom = findRoomById(id);
+            Room updatedRoom = roomMapper.requestToRoom(request);
+            BeanUtils.copyNonNullProperties(updatedRoom, existedRoom);
 
-        return roomMapper.roomToSimpleResponse(roomRepository.save(existedRoom));
+            return roomMapper.roomToSimpleResponse(roomRepository.save(existedRoom));
+        }));
+
+        negativeLookupCache.forget(NegativeLookupCache.ROOM_NAME, response.getName());
+        roomFilterCacheIndex.evictRoomChange(id, previousHotelId);
+        if (!previousHotelId.equals(response.getHotelId())) {
+            roomFilterCacheIndex.evictRoomChange(id, response.getHotelId());
+        }
+        return response;
     }
 
     @Caching(evict = {
-            @CacheEvict(value = CacheProperties.CacheNames.ALL_ROOMS, allEntries = true),
-            @CacheEvict(value = CacheProperties.CacheNames.ALL_ROOMS_WITH_FILTER, allEntries = true)
+            @CacheEvict(value = CacheProperties.CacheNames.ALL_ROOMS, allEntries = true)
     })
     public SimpleRoomResponse save(UpsertRoomRequest request) {
         validateRoomName(request.getName());
 
         var room = roomMapper.requestToRoom(request);
-        hotelService.addRoom(room);
-        return roomMapper.roomToSimpleResponse(roomRepository.save(room));
+        var response = saveUnique(request.getName(), () -> {
+            hotelService.addRoom(room);
+            return roomMapper.roomToSimpleResponse(roomRepository.save(room));
+        });
+
+        negativeLookupCache.forget(NegativeLookupCache.ROOM_ID, response.getId());
+        negativeLookupCache.forget(NegativeLookupCache.ROOM_NAME, response.getName());
+        roomFilterCacheIndex.evictRoomChange(response.getId(), response.getHotelId());
+        return response;
     }
 
     @Caching(evict = {
             @CacheEvict(value = CacheProperties.CacheNames.ALL_ROOMS, allEntries = true),
-            @CacheEvict(value = CacheProperties.CacheNames.ALL_ROOMS_WITH_FILTER, allEntries = true),
-            @CacheEvict(value = CacheProperties.CacheNames.ROOM_BY_ID, allEntries = true)
+            @CacheEvict(value = CacheProperties.CacheNames.ROOM_BY_ID, key = "#id"),
+            @CacheEvict(value = CacheProperties.CacheNames.ROOM_CALENDAR, key = "#id")
     })
     public void deleteById(Long id) {
-        if (!roomRepository.existsById(id)) {
-            throw new EntityNotFoundException("Room not found, ID is " + id);
-        }
+        var hotel = findRoomById(id).getHotel();
+        Long hotelId = hotel == null ? null : hotel.getId();
         roomRepository.deleteById(id);
+
+        roomFilterCacheIndex.evictRoomChange(id, hotelId);
     }
 
     @Caching(evict = {
             @CacheEvict(value = CacheProperties.CacheNames.ALL_ROOMS, allEntries = true),
-            @CacheEvict(value = CacheProperties.CacheNames.ALL_ROOMS_WITH_FILTER, allEntries = true),
-            @CacheEvict(value = CacheProperties.CacheNames.ROOM_BY_ID, allEntries = true)
+            @CacheEvict(value = CacheProperties.CacheNames.ROOM_BY_ID, key = "#reservation.room.id"),
+            @CacheEvict(value = CacheProperties.CacheNames.ROOM_CALENDAR, key = "#reservation.room.id")
     })
     public SimpleRoomResponse addReservation(Reservation reservation) {
-        Room existedRoom = findRoomById(reservation.getRoom().getId());
-
-        Map<Boolean, String> preValidation = preValidateDates(reservation.getCheckInDate(), reservation.getCheckOutDate());
-        if (preValidation.containsKey(false)) {
-            throw new RoomBookingException("Dates is incorrect: " + preValidation.get(false));
-        }
+        var response = roomLockManager.executeLocked(reservation.getRoom().getId(),
+                () -> optimisticRetryExecutor.execute("room.addReservation", () -> applyReservation(reservation)));
 
-        Set<LocalDate> existedDates = new TreeSet<>(existedRoom.getBookedDates());
-        Set<LocalDate> datesToBeChecked = new TreeSet<>(getDateList(reservation.getCheckInDate(), reservation.getCheckOutDate()));
+        roomFilterCacheIndex.evictBookingChange(response.getId(), response.getHotelId(),
+                reservation.getCheckInDate(), reservation.getCheckOutDate());
+        return response;
+    }
 
-        if (!isAvailableDates(existedDates, datesToBeChecked)) {
-            throw new RoomBookingException("This dates is unavailable");
+    @Caching(evict = {
+            @CacheEvict(value = CacheProperties.CacheNames.ALL_ROOMS, allEntries = true),
+            @CacheEvict(value = CacheProperties.CacheNames.ROOM_BY_ID, key = "#roomId"),
+            @CacheEvict(value = CacheProperties.CacheNames.ROOM_CALENDAR, key = "#roomId")
+    })
+    public List<BookingOutcome> addReservations(Long roomId, List<Reservation> reservations) {
+        var outcomes = roomLockManager.executeLocked(roomId,
+                () -> optimisticRetryExecutor.execute("room.addReservations",
+                        () -> transactionTemplate.execute(status -> applyReservations(roomId, reservations))));
+
+        LocalDate from = null;
+        LocalDate to = null;
+        for (BookingOutcome outcome : outcomes) {
+            if (outcome.isAccepted()) {
+                var reservation = outcome.reservation();
+                from = from == null || reservation.getCheckInDate().isBefore(from) ? reservation.getCheckInDate() : from;
+                to = to == null || reservation.getCheckOutDate().isAfter(to) ? reservation.getCheckOutDate() : to;
+            }
         }
+        if (from != null) {
+            roomFilterCacheIndex.evictBookingChange(roomId, null, from, to);
+        }
+        return outcomes;
+    }
 
-        existedDates.addAll(datesToBeChecked);
-
-        var existedReservations = existedRoom.getReservations();
-        existedReservations.add(reservation);
+    @Caching(evict = {
+            @CacheEvict(value = CacheProperties.CacheNames.ALL_ROOMS, allEntries = true),
+            @CacheEvict(value = CacheProperties.CacheNames.ROOM_BY_ID, key = "#reservation.room.id"),
+            @CacheEvict(value = CacheProperties.CacheNames.ROOM_CALENDAR, key = "#reservation.room.id")
+    })
+    public SimpleRoomResponse deleteReservation(Reservation reservation) {
+        var response = roomLockManager.executeLocked(reservation.getRoom().getId(),
+                () -> optimisticRetryExecutor.execute("room.deleteReservation", () -> releaseReservation(reservation)));
 
-        existedRoom.setReservations(existedReservations);
-        existedRoom.setBookedDates(existedDates);
-        return roomMapper.roomToSimpleResponse(roomRepository.save(existedRoom));
+        roomFilterCacheIndex.evictBookingChange(response.getId(), response.getHotelId(),
+                reservation.getCheckInDate(), reservation.getCheckOutDate());
+        return response;
     }
 
     @Caching(evict = {
             @CacheEvict(value = CacheProperties.CacheNames.ALL_ROOMS, allEntries = true),
-            @CacheEvict(value = CacheProperties.CacheNames.ALL_ROOMS_WITH_FILTER, allEntries = true),
-            @CacheEvict(value = CacheProperties.CacheNames.ROOM_BY_ID, allEntries = true)
+            @CacheEvict(value = CacheProperties.CacheNames.ROOM_BY_ID, key = "#roomId"),
+            @CacheEvict(value = CacheProperties.CacheNames.ROOM_CALENDAR, key = "#roomId")
     })
-    public SimpleRoomResponse deleteReservation(Reservation reservation) {
-        Room existedRoom = findRoomById(reservation.getRoom().getId());
+    public void reservationChanged(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        roomFilterCacheIndex.evictBookingChange(roomId, null, checkIn, checkOut);
+    }
 
-        Map<Boolean, String> preValidation = preValidateDates(reservation.getCheckInDate(), reservation.getCheckOutDate());
-        if (preValidation.containsKey(false)) {
-            throw new RoomBookingException("Dates is incorrect: " + preValidation.get(false));
+    public Room findRoomReferenceById(Long id) {
+        if (!roomRepository.existsById(id)) {
+            throw new EntityNotFoundException("Room not found, ID is " + id);
         }
+        return roomRepository.getReferenceById(id);
+    }
 
-        Set<LocalDate> existedDates = new TreeSet<>(existedRoom.getBookedDates());
-        Set<LocalDate> datesToBeChecked = getDateList(reservation.getCheckInDate(), reservation.getCheckOutDate());
-
-        if (!isBookedDates(existedDates, datesToBeChecked)) {
-            throw new RoomBookingException("This date/s is not booked");
+    public void validateDates(LocalDate checkIn, LocalDate checkOut) {
+        Map<Boolean, String> preValidation = preValidateDates(checkIn, checkOut);
+        if (preValidation.containsKey(false)) {
+            throw new RoomBookingException("Dates is incorrect: " + preValidation.get(false));
         }
+    }
 
-        existedDates.removeAll(datesToBeChecked);
+    public boolean isAvailableDates(BookingCalendar bookedDates, LocalDate from, LocalDate to) {
+        return bookedDates.isFree(from, to);
+    }
 
-        var existedReservation = existedRoom.getReservations();
-        existedReservation.remove(reservation);
+    public boolean isAvailableDates(Long roomId, BookingCalendar bookedDates, LocalDate from, LocalDate to) {
+        return bookedDates.isFree(from, to) && !roomHoldRegistry.isHeld(roomId, from, to);
+    }
 
-        existedRoom.setReservations(existedReservation);
-        existedRoom.setBookedDates(existedDates);
-        return roomMapper.roomToSimpleResponse(roomRepository.save(existedRoom));
+    public void validateNotHeld(Long roomId, LocalDate checkIn, LocalDate checkOut, String username) {
+        if (roomHoldRegistry.isHeldByOthers(roomId, checkIn, checkOut, username)) {
+            throw new RoomBookingException("This dates is on hold");
+        }
     }
 
-    public boolean isAvailableDates(Set<LocalDate> existedDates, Set<LocalDate> datesToBeChecked) {
-        return datesToBeChecked.stream().noneMatch(existedDates::contains);
+    public boolean isBookedDates(BookingCalendar bookedDates, LocalDate from, LocalDate to) {
+        return bookedDates.isBooked(from, to);
     }
 
-    public boolean isBookedDates(Set<LocalDate> existedDates, Set<LocalDate> datesToBeChecked) {
-        return existedDates.containsAll(datesToBeChecked);
+    public boolean hasOverlappingReservation(Room room, LocalDate checkIn, LocalDate checkOut) {
+        return hasOverlappingReservation(room, checkIn, checkOut, null);
     }
 
+    public boolean hasOverlappingReservation(Room room, LocalDate checkIn, LocalDate checkOut, Long ignoredReservationId) {
+        return DateRangeIndex.anyOverlaps(room.getReservations(), checkIn, checkOut, ignoredReservationId);
+    }
 
-    public Set<LocalDate> getDateList(LocalDate start, LocalDate end) {
-        Set<LocalDate> dates = new HashSet<>();
-        int iteration = 0;
+    public BookingCalendar bookedDatesOf(Room room) {
+        return databaseConstraintEnabled ? BookingCalendar.ofReservations(room.getReservations()) : room.getBookedDates();
+    }
 
-        do {
-            dates.add(start.plusDays(iteration));
-            iteration++;
-        } while (!dates.contains(end));
+    private Map<Long, BookingCalendar> bookedDatesById(List<RoomBookedDatesView> rooms) {
+        Map<Long, BookingCalendar> bookedDatesById = new HashMap<>();
+        Set<Long> fromReservations = new HashSet<>();
+        for (RoomBookedDatesView room : rooms) {
+            var bookedDates = databaseConstraintEnabled ? null : room.getBookedDates();
+            if (bookedDates == null) {
+                bookedDates = new BookingCalendar();
+                fromReservations.add(room.getId());
+            }
+            bookedDatesById.put(room.getId(), bookedDates);
+        }
 
-        return dates;
+        if (!fromReservations.isEmpty()) {
+            reservationRepository.findAllStaysByRoomIdIn(fromReservations).forEach(
+                    stay -> bookedDatesById.get(stay.getRoomId()).book(stay.getCheckInDate(), stay.getCheckOutDate())
+            );
+        }
+        return bookedDatesById;
     }
 
     private Map<Boolean, String> preValidateDates(LocalDate start, LocalDate end) {
@@ -216,8 +416,100 @@ public class RoomService {
     }
 
     private void validateRoomName(String name) {
-        if (roomRepository.existsByName(name)) {
+        if (existenceFilter.mightContain(ExistenceFilter.Kind.ROOM_NAME, name) && roomRepository.existsByName(name)) {
             throw new EntityAlreadyExists("Room with name \"" + name + "\" is already exists");
         }
     }
+
+    private <T> T saveUnique(String name, Supplier<T> save) {
+        try {
+            return save.get();
+        } catch (DataIntegrityViolationException e) {
+            throw new EntityAlreadyExists("Room with name \"" + name + "\" is already exists");
+        }
+    }
+
+    private SimpleRoomResponse applyReservation(Reservation reservation) {
+        Room existedRoom = findRoomById(reservation.getRoom().getId());
+
+        validateDates(reservation.getCheckInDate(), reservation.getCheckOutDate());
+
+        if (hasOverlappingReservation(existedRoom, reservation.getCheckInDate(), reservation.getCheckOutDate())) {
+            throw new RoomBookingException("This dates is unavailable");
+        }
+        validateNotHeld(existedRoom.getId(), reservation.getCheckInDate(), reservation.getCheckOutDate(),
+                usernameOf(reservation));
+
+        BookingCalendar bookedDates = existedRoom.getBookedDates().copy();
+        bookedDates.book(reservation.getCheckInDate(), reservation.getCheckOutDate());
+
+        var existedReservations = existedRoom.getReservations();
+        existedReservations.add(reservation);
+
+        existedRoom.setReservations(existedReservations);
+        existedRoom.setBookedDates(bookedDates);
+        return roomMapper.roomToSimpleResponse(roomRepository.save(existedRoom));
+    }
+
+    private List<BookingOutcome> applyReservations(Long roomId, List<Reservation> reservations) {
+        Room existedRoom = findRoomById(roomId);
+
+        var reservedRanges = DateRangeIndex.of(existedRoom.getReservations());
+        BookingCalendar bookedDates = existedRoom.getBookedDates().copy();
+
+        List<BookingOutcome> outcomes = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            try {
+                validateDates(reservation.getCheckInDate(), reservation.getCheckOutDate());
+                validateNotHeld(roomId, reservation.getCheckInDate(), reservation.getCheckOutDate(),
+                        usernameOf(reservation));
+                reservedRanges.add(reservation.getCheckInDate(), reservation.getCheckOutDate());
+            } catch (RoomBookingException e) {
+                outcomes.add(BookingOutcome.rejected(e));
+                continue;
+            }
+            bookedDates.book(reservation.getCheckInDate(), reservation.getCheckOutDate());
+
+            var savedReservation = reservationRepository.save(Reservation.builder()
+                    .room(existedRoom)
+                    .user(reservation.getUser())
+                    .checkInDate(reservation.getCheckInDate())
+                    .checkOutDate(reservation.getCheckOutDate())
+                    .build());
+            existedRoom.getReservations().add(savedReservation);
+            outcomes.add(BookingOutcome.accepted(savedReservation));
+        }
+
+        if (!bookedDates.equals(existedRoom.getBookedDates())) {
+            existedRoom.setBookedDates(bookedDates);
+            roomRepository.save(existedRoom);
+        }
+        return outcomes;
+    }
+
+    private SimpleRoomResponse releaseReservation(Reservation reservation) {
+        Room existedRoom = findRoomById(reservation.getRoom().getId());
+
+        validateDates(reservation.getCheckInDate(), reservation.getCheckOutDate());
+
+        if (!DateRangeIndex.anyEquals(existedRoom.getReservations(), reservation.getCheckInDate(),
+                reservation.getCheckOutDate())) {
+            throw new RoomBookingException("This date/s is not booked");
+        }
+
+        BookingCalendar bookedDates = existedRoom.getBookedDates().copy();
+        bookedDates.release(reservation.getCheckInDate(), reservation.getCheckOutDate());
+
+        var existedReservation = existedRoom.getReservations();
+        existedReservation.removeIf(existed -> existed == reservation
+                || existed.getId() != null && existed.getId().equals(reservation.getId()));
+
+        existedRoom.setReservations(existedReservation);
+        existedRoom.setBookedDates(bookedDates);
+        return roomMapper.roomToSimpleResponse(roomRepository.save(existedRoom));
+    }
+
+    private String usernameOf(Reservation reservation) {
+        return reservation.getUser() == null ? null : reservation.getUser().getUsername();
+    }
 }
@@ -2,9 +2,11 @@ package ru.example.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import ru.example.booking.cache.ExistenceFilter;
+import ru.example.booking.concurrency.PasswordHashingExecutor;
 import ru.example.booking.dao.postrgres.RoleType;
 import ru.example.booking.dao.postrgres.User;
 import ru.example.booking.dto.user.CreateUserRequest;
@@ -15,6 +17,9 @@ import ru.example.booking.exception.EntityAlreadyExists;
 import ru.example.booking.exception.EntityNotFoundException;
 import ru.example.booking.mapper.UserMapper;
 import ru.example.booking.repository.postgres.UserRepository;
+import ru.example.booking.security.AuthenticatedUserResolver;
+import ru.example.booking.security.CredentialVersions;
+import ru.example.booking.security.VerifiedCredentialCache;
 import ru.example.booking.util.BeanUtils;
 
 import java.time.Instant;
@@ -26,14 +31,22 @@ public class UserService {
 
     private final UserRepository userRepository;
 
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
     private final ValidationService validationService;
 
+    private final AuthenticatedUserResolver authenticatedUserResolver;
+
     private final UserMapper userMapper;
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
+    private final VerifiedCredentialCache verifiedCredentialCache;
+
+    private final CredentialVersions credentialVersions;
+
+    private final ExistenceFilter existenceFilter;
+
     @Value("${app.kafka.userTopic}")
     private String kafkaTopic;
 
@@ -43,7 +56,7 @@ public class UserService {
 
     public UserResponse findById(Long id, String username) {
         User user = findByIdWithoutPrivilegeValidation(id);
-        validationService.isValidAction(findByUsernameWithoutPrivilegeValidation(username), user);
+        validationService.isValidAction(authenticatedUserResolver.resolve(username), user);
         return userMapper.userToUserResponse(user);
     }
 
@@ -53,8 +66,8 @@ public class UserService {
 
         var userForSaving = userMapper.createRequestToUser(request);
         userForSaving.setRoles(Set.of(role));
-        userForSaving.setPassword(passwordEncoder.encode(userForSaving.getPassword()));
-        var savedUser = userRepository.save(userForSaving);
+        userForSaving.setPassword(passwordHashingExecutor.encode(userForSaving.getPassword()));
+        var savedUser = saveUnique(userForSaving);
 
         kafkaTemplate.send(kafkaTopic, userMapper.userToEvent(savedUser, Instant.now()));
 
@@ -67,22 +80,29 @@ public class UserService {
 
         var existedUser = findByIdWithoutPrivilegeValidation(id);
 
-        validationService.isValidAction(findByUsernameWithoutPrivilegeValidation(username), existedUser);
+        validationService.isValidAction(authenticatedUserResolver.resolve(username), existedUser);
 
         var updatedUser = userMapper.updateRequestToUser(request);
+        var previousUsername = existedUser.getUsername();
+        var previousCredentialVersion = existedUser.getCredentialVersion();
 
         BeanUtils.copyNonNullProperties(updatedUser, existedUser);
         if (updatedUser.getPassword() != null) {
-            existedUser.setPassword(passwordEncoder.encode(updatedUser.getPassword()));
+            existedUser.setPassword(passwordHashingExecutor.encode(updatedUser.getPassword()));
         }
-        return userMapper.userToUserResponse(userRepository.save(existedUser));
+        existedUser.setCredentialVersion(previousCredentialVersion + 1);
+        var response = userMapper.userToUserResponse(saveUnique(existedUser));
+
+        verifiedCredentialCache.invalidate(previousUsername);
+        credentialVersions.invalidate(id);
+        return response;
     }
 
     public UserResponse findByUsername(String username, String requesterUsername) {
 
         User user = findByUsernameWithoutPrivilegeValidation(username);
 
-        validationService.isValidAction(findByUsernameWithoutPrivilegeValidation(requesterUsername), user);
+        validationService.isValidAction(authenticatedUserResolver.resolve(requesterUsername), user);
 
         return userMapper.userToUserResponse(user);
     }
@@ -91,9 +111,11 @@ public class UserService {
 
         User existedUser = findByIdWithoutPrivilegeValidation(id);
 
-        validationService.isValidAction(findByUsernameWithoutPrivilegeValidation(username), existedUser);
+        validationService.isValidAction(authenticatedUserResolver.resolve(username), existedUser);
 
         userRepository.deleteById(id);
+        verifiedCredentialCache.invalidate(existedUser.getUsername());
+        credentialVersions.invalidate(id);
     }
 
     public User findByUsernameWithoutPrivilegeValidation(String username) {
@@ -108,11 +130,22 @@ public class UserService {
         );
     }
 
+    private User saveUnique(User user) {
+        try {
+            return userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new EntityAlreadyExists("User with username \"" + user.getUsername()
+                    + "\" or email \"" + user.getEmail() + "\" is already exists");
+        }
+    }
+
     private void validateUsernameEmail(String username, String email) {
-        if (userRepository.existsByUsername(username)) {
+        if (existenceFilter.mightContain(ExistenceFilter.Kind.USERNAME, username)
+                && userRepository.existsByUsername(username)) {
             throw new EntityAlreadyExists("User with username \"" + username + "\" is already exists");
         }
-        if (userRepository.existsByEmail(email)) {
+        if (existenceFilter.mightContain(ExistenceFilter.Kind.EMAIL, email)
+                && userRepository.existsByEmail(email)) {
             throw new EntityAlreadyExists("User with email \"" + email + "\" is already exists");
         }
     }
@@ -3,8 +3,8 @@ package ru.example.booking.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
-import ru.example.booking.dao.postrgres.RoleType;
 import ru.example.booking.dao.postrgres.User;
+import ru.example.booking.security.AuthenticatedUser;
 
 import java.util.Objects;
 
@@ -13,8 +13,16 @@ import java.util.Objects;
 public class ValidationService {
 
     public void isValidAction(User requester, User owner) {
-        boolean isAdmin = requester.getRoles().contains(RoleType.ROLE_ADMIN);
-        boolean isOwner = Objects.equals(requester.getId(), owner.getId());
+        isValidAction(AuthenticatedUser.of(requester), owner.getId());
+    }
+
+    public void isValidAction(AuthenticatedUser requester, User owner) {
+        isValidAction(requester, owner.getId());
+    }
+
+    public void isValidAction(AuthenticatedUser requester, Long ownerId) {
+        boolean isAdmin = requester.isAdmin();
+        boolean isOwner = Objects.equals(requester.id(), ownerId);
         if (!isAdmin && !isOwner) {
             throw new AccessDeniedException("Access denied");
         }
@@ -1,5 +1,6 @@
 package ru.example.booking.util;
 
+import jakarta.persistence.Version;
 import lombok.SneakyThrows;
 import lombok.experimental.UtilityClass;
 
@@ -14,6 +15,9 @@ public class BeanUtils {
         Field[] fields = clazz.getDeclaredFields();
 
         for (Field f : fields) {
+            if (f.isAnnotationPresent(Version.class)) {
+                continue;
+            }
             f.setAccessible(true);
             Object value = f.get(from);
 
@@ -0,0 +1,95 @@
+package ru.example.booking.util;
+
+import ru.example.booking.dao.postrgres.Reservation;
+import ru.example.booking.exception.RoomBookingException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+public class DateRangeIndex {
+
+    private final List<DateRange> ranges;
+
+    private DateRangeIndex(List<DateRange> ranges) {
+        this.ranges = ranges;
+    }
+
+    public static DateRangeIndex of(Collection<Reservation> reservations) {
+        List<DateRange> ranges = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            ranges.add(DateRange.of(reservation.getCheckInDate(), reservation.getCheckOutDate()));
+        }
+        ranges.sort(Comparator.comparingLong(DateRange::start));
+        return new DateRangeIndex(ranges);
+    }
+
+    // a single probe scans the room reservations once, sorting them for one lookup would cost more
+    public static boolean anyOverlaps(Collection<Reservation> reservations, LocalDate checkIn, LocalDate checkOut,
+                                      Long ignoredReservationId) {
+        var range = DateRange.of(checkIn, checkOut);
+        for (Reservation reservation : reservations) {
+            if (ignoredReservationId != null && ignoredReservationId.equals(reservation.getId())) {
+                continue;
+            }
+            var reserved = DateRange.of(reservation.getCheckInDate(), reservation.getCheckOutDate());
+            if (reserved.start() < range.end() && reserved.end() > range.start()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean anyEquals(Collection<Reservation> reservations, LocalDate checkIn, LocalDate checkOut) {
+        var range = DateRange.of(checkIn, checkOut);
+        for (Reservation reservation : reservations) {
+            if (DateRange.of(reservation.getCheckInDate(), reservation.getCheckOutDate()).equals(range)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean overlaps(LocalDate checkIn, LocalDate checkOut) {
+        var range = DateRange.of(checkIn, checkOut);
+        int previous = firstStartingAtOrAfter(range.end()) - 1;
+        return previous >= 0 && ranges.get(previous).end() > range.start();
+    }
+
+    public void add(LocalDate checkIn, LocalDate checkOut) {
+        if (overlaps(checkIn, checkOut)) {
+            throw new RoomBookingException("This dates is unavailable");
+        }
+        var range = DateRange.of(checkIn, checkOut);
+        ranges.add(firstStartingAtOrAfter(range.start()), range);
+    }
+
+    private int firstStartingAtOrAfter(long epochDay) {
+        int low = 0;
+        int high = ranges.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ranges.get(middle).start() < epochDay) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private record DateRange(long start, long end) {
+
+        static DateRange of(LocalDate checkIn, LocalDate checkOut) {
+            if (checkIn == null || checkOut == null) {
+                throw new RoomBookingException("Input dates is incorrect");
+            }
+            if (checkOut.isBefore(checkIn)) {
+                throw new RoomBookingException("Dates is incorrect: Date \"to\" is earlier than date \"from\"");
+            }
+            return new DateRange(checkIn.toEpochDay(), checkOut.toEpochDay() + 1);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
@@ -21,6 +22,7 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
+import ru.example.booking.cache.CacheInvalidationListener;
 import ru.example.booking.controller.ReservationController;
 import ru.example.booking.dao.postrgres.*;
 import ru.example.booking.dto.defaults.ErrorResponse;
@@ -45,7 +47,6 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -105,9 +106,18 @@ public class AbstractMainTest {
     @Autowired
     protected ReservationMapper reservationMapper;
 
+    @Autowired
+    protected HoldService holdService;
+
     @Autowired
     protected ObjectMapper objectMapper;
 
+    @Autowired
+    protected CacheManager cacheManager;
+
+    @Autowired
+    protected CacheInvalidationListener cacheInvalidationListener;
+
     @Autowired
     protected PasswordEncoder passwordEncoder;
 
@@ -155,6 +165,7 @@ public class AbstractMainTest {
         roomRepository.deleteAll();
         hotelRepository.deleteAll();
         userRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
     }
 
     private static Stream<Arguments> invalidInputStringsTwoValues() {
@@ -244,7 +255,7 @@ public class AbstractMainTest {
                     .user(createDefaultUser(1, RoleType.ROLE_USER))
                     .build();
             room.setReservations(List.of(reservation));
-            room.setBookedDates(roomService.getDateList(reservation.getCheckInDate(), reservation.getCheckOutDate()));
+            room.setBookedDates(BookingCalendar.of(reservation.getCheckInDate(), reservation.getCheckOutDate()));
         });
         return rooms;
     }
@@ -277,7 +288,7 @@ public class AbstractMainTest {
                 .price(BigDecimal.valueOf(roomNum))
                 .capacity(roomNum)
                 .hotel(hotel)
-                .bookedDates(new HashSet<>())
+                .bookedDates(new BookingCalendar())
                 .build();
     }
 
@@ -298,15 +309,22 @@ public class AbstractMainTest {
         }
     }
 
+    protected void executeStatement(String sql) {
+        try (Connection connection = DriverManager.getConnection(postgreSQLContainer.getJdbcUrl(),
+                postgreSQLContainer.getUsername(),
+                postgreSQLContainer.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     protected Room createDefaultRoomWithBookingDatesTodayAndTomorrow(RoomDescription description) {
         int roomNum = (int) (roomRepository.count() + 1);
         var room = createDefaultRoomWithoutBookedDates(roomNum, description, true);
-        Set<LocalDate> dates = Set.of(
-                LocalDate.now(),
-                LocalDate.now().plusDays(1)
-        );
 
-        room.setBookedDates(dates);
+        room.setBookedDates(BookingCalendar.of(LocalDate.now(), LocalDate.now().plusDays(1)));
         return room;
     }
 
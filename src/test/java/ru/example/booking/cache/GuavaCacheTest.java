@@ -0,0 +1,106 @@
+package ru.example.booking.cache;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+import net.javacrumbs.jsonunit.JsonAssert;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class GuavaCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final Ticker ticker = new Ticker() {
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    };
+
+    @Test
+    public void whenEntryIsStale_thenStaleValueIsServedWhileOneReloadRuns() throws Exception {
+        var calls = new AtomicInteger();
+        var reloadStarted = new CountDownLatch(1);
+        var releaseReload = new CountDownLatch(1);
+        Callable<String> valueLoader = () -> {
+            int call = calls.incrementAndGet();
+            if (call > 1) {
+                reloadStarted.countDown();
+                releaseReload.await();
+            }
+            return "v" + call;
+        };
+
+        ExecutorService refreshExecutor = Executors.newFixedThreadPool(2);
+        ExecutorService readers = Executors.newFixedThreadPool(8);
+        try {
+            var cache = new GuavaCache("test", refreshingBuilder(), true, refreshExecutor);
+            JsonAssert.assertJsonEquals("v1", cache.get("key", valueLoader));
+
+            nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+
+            var start = new CountDownLatch(1);
+            List<Future<String>> reads = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                reads.add(readers.submit(() -> {
+                    start.await();
+                    return cache.get("key", valueLoader);
+                }));
+            }
+            start.countDown();
+            for (var read : reads) {
+                JsonAssert.assertJsonEquals("v1", read.get(5, TimeUnit.SECONDS));
+            }
+
+            JsonAssert.assertJsonEquals(true, reloadStarted.await(5, TimeUnit.SECONDS));
+            JsonAssert.assertJsonEquals("v1", cache.get("key", valueLoader));
+            JsonAssert.assertJsonEquals(2, calls.get());
+
+            releaseReload.countDown();
+            Awaitility.await()
+                    .atMost(Duration.ofSeconds(5))
+                    .until(() -> "v2".equals(cache.get("key", valueLoader)));
+            JsonAssert.assertJsonEquals(2, calls.get());
+        } finally {
+            releaseReload.countDown();
+            readers.shutdownNow();
+            refreshExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void whenRefreshIsRejected_thenOldValueIsKept() {
+        var calls = new AtomicInteger();
+        Callable<String> valueLoader = () -> "v" + calls.incrementAndGet();
+
+        var cache = new GuavaCache("test", refreshingBuilder(), true, command -> {
+            throw new RejectedExecutionException("Refresh pool is full");
+        });
+        JsonAssert.assertJsonEquals("v1", cache.get("key", valueLoader));
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+
+        JsonAssert.assertJsonEquals("v1", cache.get("key", valueLoader));
+        JsonAssert.assertJsonEquals("v1", cache.get("key").get());
+        JsonAssert.assertJsonEquals(1, calls.get());
+    }
+
+    private CacheBuilder<Object, Object> refreshingBuilder() {
+        return CacheBuilder.newBuilder()
+                .refreshAfterWrite(1, TimeUnit.MINUTES)
+                .ticker(ticker);
+    }
+}
@@ -0,0 +1,70 @@
+package ru.example.booking.concurrency;
+
+import net.javacrumbs.jsonunit.JsonAssert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class HashedTimingWheelTest {
+
+    private static final Duration TICK = Duration.ofMillis(10);
+
+    private final Map<String, Long> expiredAt = new ConcurrentHashMap<>();
+
+    private final CountDownLatch lastExpired = new CountDownLatch(1);
+
+    private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>("test-wheel", TICK, 4, item -> {
+        expiredAt.put(item, System.nanoTime());
+        if (item.equals("last")) {
+            lastExpired.countDown();
+        }
+    });
+
+    @AfterEach
+    public void afterEach() {
+        wheel.shutdown();
+    }
+
+    @Test
+    public void whenDeadlinePasses_thenItemExpiresNotEarlierThanItsDelay() throws Exception {
+        long scheduledAt = System.nanoTime();
+        wheel.schedule("short", Duration.ofMillis(30));
+        wheel.schedule("last", Duration.ofMillis(60));
+
+        JsonAssert.assertJsonEquals(true, lastExpired.await(5, TimeUnit.SECONDS));
+
+        JsonAssert.assertJsonEquals(true, expiredAt.get("short") - scheduledAt >= Duration.ofMillis(30).toNanos());
+        JsonAssert.assertJsonEquals(true, expiredAt.get("last") - scheduledAt >= Duration.ofMillis(60).toNanos());
+        JsonAssert.assertJsonEquals(true, expiredAt.get("short") < expiredAt.get("last"));
+    }
+
+    @Test
+    public void whenDelayIsLongerThanOneRound_thenItemWaitsForItsRound() throws Exception {
+        long scheduledAt = System.nanoTime();
+        // four buckets of 10 ms make a 40 ms round, this deadline lands in the same bucket three rounds later
+        wheel.schedule("last", Duration.ofMillis(125));
+
+        JsonAssert.assertJsonEquals(true, lastExpired.await(5, TimeUnit.SECONDS));
+
+        JsonAssert.assertJsonEquals(true, expiredAt.get("last") - scheduledAt >= Duration.ofMillis(125).toNanos());
+    }
+
+    @Test
+    public void whenTimeoutIsCancelled_thenItemNeverExpires() throws Exception {
+        wheel.schedule("cancelled", Duration.ofMillis(20)).cancel();
+        var cancelledInBucket = wheel.schedule("cancelledInBucket", Duration.ofMillis(200));
+        Thread.sleep(TICK.toMillis() * 3);
+        cancelledInBucket.cancel();
+        wheel.schedule("last", Duration.ofMillis(300));
+
+        JsonAssert.assertJsonEquals(true, lastExpired.await(5, TimeUnit.SECONDS));
+
+        JsonAssert.assertJsonEquals(false, expiredAt.containsKey("cancelled"));
+        JsonAssert.assertJsonEquals(false, expiredAt.containsKey("cancelledInBucket"));
+    }
+}
@@ -5,13 +5,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import ru.example.booking.abstracts.ReservationAbstractTest;
+import ru.example.booking.dao.postrgres.BookingCalendar;
 import ru.example.booking.dto.defaults.ErrorResponse;
 import ru.example.booking.dto.reservation.ReservationResponse;
 import ru.example.booking.dto.reservation.UpsertReservationRequest;
 import ru.example.booking.util.LocalDatesUtil;
 
 import java.time.LocalDate;
-import java.util.Set;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -257,7 +257,7 @@ public class ReservationControllerTest extends ReservationAbstractTest {
 
 
         var expectedRoomResult = createStandardRoomWithoutBookedDates(1, false);
-        expectedRoomResult.setBookedDates(Set.of(LocalDate.now().plusDays(5)));
+        expectedRoomResult.setBookedDates(BookingCalendar.of(LocalDate.now().plusDays(5), LocalDate.now().plusDays(5)));
 
         var actualRoomResult = roomService.findRoomById(1L);
 
@@ -295,7 +295,7 @@ public class ReservationControllerTest extends ReservationAbstractTest {
 
 
         var expectedRoomResult = createStandardRoomWithoutBookedDates(1, false);
-        expectedRoomResult.setBookedDates(Set.of(LocalDate.now().plusDays(5)));
+        expectedRoomResult.setBookedDates(BookingCalendar.of(LocalDate.now().plusDays(5), LocalDate.now().plusDays(5)));
 
         var actualRoomResult = roomService.findRoomById(1L);
 
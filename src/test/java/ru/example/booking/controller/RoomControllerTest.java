@@ -4,9 +4,14 @@ import net.javacrumbs.jsonunit.JsonAssert;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import ru.example.booking.abstracts.RoomAbstractTest;
+import ru.example.booking.dao.postrgres.BookingCalendar;
+import ru.example.booking.dao.postrgres.Reservation;
 import ru.example.booking.dao.postrgres.RoleType;
 import ru.example.booking.dao.postrgres.Room;
 import ru.example.booking.dao.postrgres.RoomDescription;
@@ -14,6 +19,11 @@ import ru.example.booking.dto.defaults.ErrorResponse;
 import ru.example.booking.dto.defaults.FindAllSettings;
 import ru.example.booking.dto.defaults.RoomFilter;
 import ru.example.booking.dto.reservation.UpsertReservationRequest;
+import ru.example.booking.dto.room.CalendarRunResponse;
+import ru.example.booking.dto.room.RoomAvailabilityRequest;
+import ru.example.booking.dto.room.RoomAvailabilityResponse;
+import ru.example.booking.dto.room.RoomAvailabilityResponseList;
+import ru.example.booking.dto.room.RoomCalendarResponse;
 import ru.example.booking.dto.room.RoomResponseList;
 import ru.example.booking.dto.room.SimpleRoomResponse;
 import ru.example.booking.dto.room.UpsertRoomRequest;
@@ -66,6 +76,76 @@ public class RoomControllerTest extends RoomAbstractTest {
         JsonAssert.assertJsonEquals(expectedResponse, actualResponse);
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    public void whenFindRoomByIdWithActualETag_thenReturnNotModifiedUntilRoomIsChanged() throws Exception {
+        var eTag = mockMvc.perform(get("/api/room/1"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        JsonAssert.assertJsonEquals(true, eTag != null);
+
+        var notModifiedBody = mockMvc.perform(get("/api/room/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        JsonAssert.assertJsonEquals("", notModifiedBody);
+
+        mockMvc.perform(put("/api/room/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(UpsertRoomRequest.builder().name("newName").build())))
+                .andExpect(status().isOk());
+
+        var newETag = mockMvc.perform(get("/api/room/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        JsonAssert.assertJsonEquals(false, eTag.equals(newETag));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    public void whenRoomCacheIsCleared_thenETagIsNotChanged() throws Exception {
+        var eTag = mockMvc.perform(get("/api/room"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        mockMvc.perform(get("/api/room").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void whenHotelOfCachedRoomIsDeleted_thenRoomIsNotFound() throws Exception {
+        var eTag = mockMvc.perform(get("/api/room/1"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(delete("/api/hotel/1"))
+                .andExpect(status().isNoContent());
+
+        var actualResponse = mockMvc.perform(get("/api/room/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotFound())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        JsonAssert.assertJsonEquals(new ErrorResponse("Room not found, ID is 1"), actualResponse);
+    }
+
     @Test
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     public void whenDeleteRoomById_thenReturnNoContentAndDecreasedRepository() throws Exception {
@@ -78,6 +158,21 @@ public class RoomControllerTest extends RoomAbstractTest {
         JsonAssert.assertJsonEquals(4L, roomRepository.count());
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    public void whenDeleteRoomWithoutHotel_thenReturnNoContent() throws Exception {
+        var room = createStandardRoomWithoutBookedDates(6, false);
+        room.setId(null);
+        room.setHotel(null);
+        var savedRoom = roomRepository.save(room);
+
+        mockMvc.perform(delete("/api/room/" + savedRoom.getId()))
+                .andExpect(status().isNoContent());
+
+        JsonAssert.assertJsonEquals(false, roomRepository.existsById(savedRoom.getId()));
+        JsonAssert.assertJsonEquals(5L, roomRepository.count());
+    }
+
     @Test
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     public void whenSaveRoom_thenReturnRoomAndIncreasedRepository() throws Exception {
@@ -508,6 +603,71 @@ public class RoomControllerTest extends RoomAbstractTest {
         JsonAssert.assertJsonEquals(expectedResponse, actualResponse);
     }
 
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    public void whenCheckAvailabilityForSeveralRooms_thenReturnAvailabilityPerRoom() throws Exception {
+
+        var bookedRoom = roomService.findRoomById(2L);
+        bookedRoom.setBookedDates(BookingCalendar.of(LocalDate.now().plusDays(5), LocalDate.now().plusDays(7)));
+        roomRepository.save(bookedRoom);
+
+        var request = RoomAvailabilityRequest.builder()
+                .roomIds(List.of(1L, 2L, 99L))
+                .checkInDate(LocalDatesUtil.localDateToStr(LocalDate.now().plusDays(6), DATE_PATTERN))
+                .checkOutDate(LocalDatesUtil.localDateToStr(LocalDate.now().plusDays(8), DATE_PATTERN))
+                .build();
+
+        var expectedResponse = RoomAvailabilityResponseList.builder()
+                .rooms(List.of(new RoomAvailabilityResponse(1L, true), new RoomAvailabilityResponse(2L, false)))
+                .notFoundRoomIds(List.of(99L))
+                .build();
+
+        var actualResponse = mockMvc.perform(get("/api/room/availability")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        JsonAssert.assertJsonEquals(expectedResponse, actualResponse);
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    public void whenFindCalendar_thenReturnFreeAndBookedRuns() throws Exception {
+
+        roomService.addReservation(Reservation.builder()
+                .room(createDefaultRoomWithoutBookedDates(1, RoomDescription.STANDARD, false))
+                .checkInDate(LocalDate.now().plusDays(3))
+                .checkOutDate(LocalDate.now().plusDays(5))
+                .build());
+
+        var toDate = LocalDate.now().plusMonths(12).minusDays(1);
+
+        var expectedResponse = RoomCalendarResponse.builder()
+                .roomId(1L)
+                .fromDate(LocalDatesUtil.localDateToStr(LocalDate.now(), DATE_PATTERN))
+                .toDate(LocalDatesUtil.localDateToStr(toDate, DATE_PATTERN))
+                .runs(List.of(
+                        new CalendarRunResponse(LocalDatesUtil.localDateToStr(LocalDate.now(), DATE_PATTERN),
+                                LocalDatesUtil.localDateToStr(LocalDate.now().plusDays(2), DATE_PATTERN), false),
+                        new CalendarRunResponse(LocalDatesUtil.localDateToStr(LocalDate.now().plusDays(3), DATE_PATTERN),
+                                LocalDatesUtil.localDateToStr(LocalDate.now().plusDays(5), DATE_PATTERN), true),
+                        new CalendarRunResponse(LocalDatesUtil.localDateToStr(LocalDate.now().plusDays(6), DATE_PATTERN),
+                                LocalDatesUtil.localDateToStr(toDate, DATE_PATTERN), false)
+                ))
+                .build();
+
+        var actualResponse = mockMvc.perform(get("/api/room/1/calendar"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        JsonAssert.assertJsonEquals(expectedResponse, actualResponse);
+    }
+
     @Test
     @WithMockUser(username = "user", roles = {"USER"})
     public void whenFindAllWithFilterById_thenReturnCorrectList() throws Exception {
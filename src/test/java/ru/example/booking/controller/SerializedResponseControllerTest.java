@@ -0,0 +1,95 @@
+package ru.example.booking.controller;
+
+import net.javacrumbs.jsonunit.JsonAssert;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import ru.example.booking.abstracts.RoomAbstractTest;
+import ru.example.booking.cache.SerializedResponseCache;
+import ru.example.booking.configuration.properties.CacheProperties;
+import ru.example.booking.dto.room.RoomResponseList;
+import ru.example.booking.dto.room.SimpleRoomResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "app.web.serializedCache.gzip=true")
+public class SerializedResponseControllerTest extends RoomAbstractTest {
+
+    @Autowired
+    private SerializedResponseCache serializedResponseCache;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "identity", "gzip;q=0", "deflate, gzip; q=0.0", "*;q=0", "br, *;q=1, gzip;q=0"})
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    public void whenGzipIsNotAccepted_thenReturnPlainJsonVaryingOnAcceptEncoding(String acceptEncoding) throws Exception {
+        var expectedResponse = roomMapper.roomListToResponseList(createDefaultRoomList(false));
+
+        var request = get("/api/room");
+        if (!acceptEncoding.isEmpty()) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        var response = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+
+        JsonAssert.assertJsonEquals(null, response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        JsonAssert.assertJsonEquals(true, response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING));
+        JsonAssert.assertJsonEquals(expectedResponse, response.getContentAsString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"gzip", "deflate, gzip", "GZIP;q=0.5", "x-gzip", "br;q=1, *;q=0.1"})
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    public void whenGzipIsAccepted_thenReturnGzippedJson(String acceptEncoding) throws Exception {
+        var expectedResponse = roomMapper.roomListToResponseList(createDefaultRoomList(false));
+
+        var response = mockMvc.perform(get("/api/room").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+
+        JsonAssert.assertJsonEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        JsonAssert.assertJsonEquals(true, response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING));
+
+        var gzipped = response.getContentAsByteArray();
+        JsonAssert.assertJsonEquals(gzipped.length, response.getContentLength());
+        try (var json = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            JsonAssert.assertJsonEquals(expectedResponse, new String(json.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void whenSourceCacheEntryIsReplacedOrEvicted_thenSerializedBytesAreDropped() throws Exception {
+        var cache = cacheManager.getCache(CacheProperties.CacheNames.ALL_ROOMS);
+        var response = new RoomResponseList(List.of(SimpleRoomResponse.builder().id(1L).name("First").build()));
+        cache.put(SimpleKey.EMPTY, response);
+
+        var first = serializedResponseCache.get(response);
+        JsonAssert.assertJsonEquals(true, first == serializedResponseCache.get(response));
+        JsonAssert.assertJsonEquals(response, new String(first.json(), StandardCharsets.UTF_8));
+
+        var replaced = new RoomResponseList(List.of(SimpleRoomResponse.builder().id(2L).name("Second").build()));
+        cache.put(SimpleKey.EMPTY, replaced);
+
+        JsonAssert.assertJsonEquals(false, first == serializedResponseCache.get(response));
+
+        var replacedBody = serializedResponseCache.get(replaced);
+        JsonAssert.assertJsonEquals(replaced, new String(replacedBody.json(), StandardCharsets.UTF_8));
+
+        cache.evict(SimpleKey.EMPTY);
+
+        JsonAssert.assertJsonEquals(false, replacedBody == serializedResponseCache.get(replaced));
+    }
+}
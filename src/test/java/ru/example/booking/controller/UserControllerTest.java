@@ -1,23 +1,42 @@
 package ru.example.booking.controller;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import net.javacrumbs.jsonunit.JsonAssert;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import ru.example.booking.abstracts.UserAbstractTest;
+import ru.example.booking.concurrency.PasswordHashingExecutor;
+import ru.example.booking.configuration.properties.CacheProperties;
+import ru.example.booking.controller.defaults.ExceptionHandlerController;
 import ru.example.booking.dao.postrgres.RoleType;
 import ru.example.booking.dao.postrgres.User;
 import ru.example.booking.dto.defaults.ErrorResponse;
 import ru.example.booking.dto.user.CreateUserRequest;
+import ru.example.booking.dto.user.LoginRequest;
+import ru.example.booking.dto.user.TokenResponse;
 import ru.example.booking.dto.user.UpdateUserRequest;
+import ru.example.booking.exception.TooManyRequestsException;
 
+import java.time.Duration;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 public class UserControllerTest extends UserAbstractTest {
 
+    @Autowired
+    private ExceptionHandlerController exceptionHandlerController;
+
     @Test
     public void whenCreateNewUserOnPublicControllerWithoutLogging_thenReturnNewUser() throws Exception {
 
@@ -383,6 +402,94 @@ public class UserControllerTest extends UserAbstractTest {
         JsonAssert.assertJsonEquals(expectedResponse, actualResponse1);
     }
 
+    @Test
+    public void whenPasswordIsChanged_thenVerifiedCredentialIsNotAcceptedAnymore() throws Exception {
+
+        userService.update(1L, UpdateUserRequest.builder().password("newPass").build(), "user1");
+
+        mockMvc.perform(get("/api/user/1").with(httpBasic("user1", "newPass")))
+                .andExpect(status().isOk());
+
+        var credentialCache = cacheManager.getCache(CacheProperties.CacheNames.VERIFIED_CREDENTIALS);
+
+        JsonAssert.assertJsonEquals(true, credentialCache.get("user1") != null);
+
+        mockMvc.perform(get("/api/user/1").with(httpBasic("user1", "newPass")))
+                .andExpect(status().isOk());
+
+        userService.update(1L, UpdateUserRequest.builder().password("otherPass").build(), "user1");
+
+        JsonAssert.assertJsonEquals(true, credentialCache.get("user1") == null);
+
+        mockMvc.perform(get("/api/user/1").with(httpBasic("user1", "newPass")))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/api/user/1").with(httpBasic("user1", "otherPass")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void whenLoginWithCorrectPassword_thenReturnTokenAcceptedWithoutPassword() throws Exception {
+
+        userService.update(1L, UpdateUserRequest.builder().password("newPass").build(), "user1");
+
+        mockMvc.perform(post("/api/public/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("user1", "wrongPass"))))
+                .andExpect(status().isUnauthorized());
+
+        var response = objectMapper.readValue(mockMvc.perform(post("/api/public/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("user1", "newPass"))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(), TokenResponse.class);
+
+        JsonAssert.assertJsonEquals("Bearer", response.getTokenType());
+
+        var expectedResponse = userMapper.userToUserResponse(createUserWithUserRole(1));
+
+        var actualResponse = mockMvc.perform(get("/api/user/1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + response.getAccessToken()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        JsonAssert.assertJsonEquals(expectedResponse, actualResponse);
+
+        mockMvc.perform(get("/api/user/1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + response.getAccessToken() + "x"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void whenUserIsUpdatedOrDeleted_thenIssuedTokenIsRejected() throws Exception {
+
+        userService.update(1L, UpdateUserRequest.builder().password("newPass").build(), "user1");
+
+        var firstToken = login("user1", "newPass");
+
+        mockMvc.perform(get("/api/user/1").header(HttpHeaders.AUTHORIZATION, "Bearer " + firstToken))
+                .andExpect(status().isOk());
+
+        userService.update(1L, UpdateUserRequest.builder().email("updated@email.com").build(), "user1");
+
+        mockMvc.perform(get("/api/user/1").header(HttpHeaders.AUTHORIZATION, "Bearer " + firstToken))
+                .andExpect(status().isUnauthorized());
+
+        var secondToken = login("user1", "newPass");
+
+        mockMvc.perform(get("/api/user/1").header(HttpHeaders.AUTHORIZATION, "Bearer " + secondToken))
+                .andExpect(status().isOk());
+
+        userService.deleteById(1L, "user1");
+
+        mockMvc.perform(get("/api/user/2").header(HttpHeaders.AUTHORIZATION, "Bearer " + secondToken))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     public void whenUpdateUserWithoutLogging_thenReturnError() throws Exception {
 
@@ -545,4 +652,66 @@ public class UserControllerTest extends UserAbstractTest {
 
         JsonAssert.assertJsonEquals(expectedResponse, actualResponse);
     }
+
+    @Test
+    public void whenPasswordHashingPoolIsSaturated_thenReturnTooManyRequests() throws Exception {
+
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var blockingEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash-" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+        var registry = new SimpleMeterRegistry();
+        var hashingExecutor = new PasswordHashingExecutor(blockingEncoder, 1, 0, Duration.ofSeconds(5), registry);
+
+        TooManyRequestsException actualException = null;
+        try {
+            var firstHash = CompletableFuture.supplyAsync(() -> hashingExecutor.encode("first"));
+            started.await();
+
+            try {
+                hashingExecutor.encode("second");
+            } catch (TooManyRequestsException e) {
+                actualException = e;
+            }
+
+            release.countDown();
+            JsonAssert.assertJsonEquals("hash-first", firstHash.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            hashingExecutor.shutdown();
+        }
+
+        var actualResponse = exceptionHandlerController.tooManyRequests(actualException);
+
+        JsonAssert.assertJsonEquals(HttpStatus.TOO_MANY_REQUESTS.value(), actualResponse.getStatusCode().value());
+        JsonAssert.assertJsonEquals("1", actualResponse.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        JsonAssert.assertJsonEquals(new ErrorResponse("Too many password operations, please try again later"),
+                actualResponse.getBody());
+        JsonAssert.assertJsonEquals(1.0, registry.get("security.password.hash.rejected").counter().count());
+    }
+
+    private String login(String username, String password) throws Exception {
+        return objectMapper.readValue(mockMvc.perform(post("/api/public/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(username, password))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(), TokenResponse.class).getAccessToken();
+    }
 }
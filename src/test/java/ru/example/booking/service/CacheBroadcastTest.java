@@ -0,0 +1,58 @@
+package ru.example.booking.service;
+
+import net.javacrumbs.jsonunit.JsonAssert;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.context.TestPropertySource;
+import ru.example.booking.abstracts.RoomAbstractTest;
+import ru.example.booking.cache.CacheInvalidationPublisher;
+import ru.example.booking.configuration.properties.CacheProperties;
+
+import java.time.Duration;
+
+@TestPropertySource(properties = "app.cache.broadcast.enable=true")
+public class CacheBroadcastTest extends RoomAbstractTest {
+
+    @Autowired
+    private CacheInvalidationPublisher invalidationPublisher;
+
+    @Autowired
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+    @Value("${app.kafka.cacheInvalidationTopic}")
+    private String cacheInvalidationTopic;
+
+    @Test
+    public void whenEvictIsPublishedOverKafka_thenPeerEvictionIsAppliedAndOwnIsIgnored() throws Exception {
+
+        var container = kafkaListenerEndpointRegistry.getListenerContainers().stream()
+                .filter(listener -> listener.getGroupId() != null
+                        && listener.getGroupId().endsWith("-cache-" + invalidationPublisher.getInstanceName()))
+                .findFirst()
+                .orElseThrow();
+        ContainerTestUtils.waitForAssignment(container, 1);
+
+        var roomCache = cacheManager.getCache(CacheProperties.CacheNames.ROOM_BY_ID);
+        roomService.findById(1L);
+        roomService.findById(2L);
+
+        var peerPublisher = new CacheInvalidationPublisher(kafkaTemplate, cacheInvalidationTopic, true, "peer");
+
+        invalidationPublisher.publishEvict(CacheProperties.CacheNames.ROOM_BY_ID, 1L);
+        peerPublisher.publishEvict(CacheProperties.CacheNames.ROOM_BY_ID, 2L);
+
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(15))
+                .until(() -> roomCache.get(2L) == null);
+
+        JsonAssert.assertJsonEquals(true, roomCache.get(1L) != null);
+    }
+}
@@ -1,11 +1,43 @@
 package ru.example.booking.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import net.javacrumbs.jsonunit.JsonAssert;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import ru.example.booking.abstracts.HotelAbstractTest;
+import ru.example.booking.cache.ExistenceFilter;
+import ru.example.booking.cache.NegativeLookupCache;
+import ru.example.booking.concurrency.OptimisticRetryExecutor;
+import ru.example.booking.configuration.properties.CacheProperties;
+import ru.example.booking.controller.defaults.ExceptionHandlerController;
+import ru.example.booking.dao.postrgres.Hotel;
+import ru.example.booking.dto.defaults.ErrorResponse;
+import ru.example.booking.dto.hotel.CreateHotelRequest;
+import ru.example.booking.dto.hotel.UpdateHotelRequest;
+import ru.example.booking.exception.ConcurrentUpdateException;
+import ru.example.booking.exception.EntityAlreadyExists;
+import ru.example.booking.exception.EntityNotFoundException;
+
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class HotelServiceTest extends HotelAbstractTest {
 
+    @Autowired
+    private ExistenceFilter existenceFilter;
+
+    @Autowired
+    private OptimisticRetryExecutor optimisticRetryExecutor;
+
+    @Autowired
+    private ExceptionHandlerController exceptionHandlerController;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     public void whenUpdateHotelRating_thenReturnRating3() {
 
@@ -32,4 +64,152 @@ public class HotelServiceTest extends HotelAbstractTest {
 
         JsonAssert.assertJsonEquals(expectedResult, actualResult);
     }
+
+    @Test
+    public void whenUpdateHotelRating_thenCachedHotelIsEvicted() {
+
+        hotelService.findById(1L);
+        hotelService.findByName("Hotel 1");
+
+        var expectedResult = hotelService.updateRating(1L, 5);
+
+        JsonAssert.assertJsonEquals(expectedResult, hotelService.findById(1L));
+        JsonAssert.assertJsonEquals(expectedResult, hotelService.findByName("Hotel 1"));
+    }
+
+    @Test
+    public void whenFindNotExistsHotel_thenMissIsCachedAndExceptionIsStackless() {
+
+        EntityNotFoundException actualException = null;
+
+        try {
+            hotelService.findById(100L);
+        } catch (EntityNotFoundException e) {
+            actualException = e;
+        }
+
+        var missingEntities = cacheManager.getCache(CacheProperties.CacheNames.MISSING_ENTITIES);
+
+        JsonAssert.assertJsonEquals("Hotel not found, ID is 100", actualException.getMessage());
+        JsonAssert.assertJsonEquals(0, actualException.getStackTrace().length);
+        JsonAssert.assertJsonEquals(true, missingEntities.get(NegativeLookupCache.HOTEL_ID + ":100") != null);
+    }
+
+    @Test
+    public void whenCreateHotelWithNameSavedByRepository_thenReturnAlreadyExistsError() {
+
+        JsonAssert.assertJsonEquals(true, existenceFilter.mightContain(ExistenceFilter.Kind.HOTEL_NAME, "Hotel 1"));
+
+        var request = CreateHotelRequest.builder()
+                .name("Hotel 1")
+                .headline("New headline")
+                .city("New city")
+                .address("New address")
+                .distance(1F)
+                .build();
+
+        EntityAlreadyExists actualException = null;
+
+        try {
+            hotelService.save(request);
+        } catch (EntityAlreadyExists e) {
+            actualException = e;
+        }
+
+        JsonAssert.assertJsonEquals("Hotel with name \"Hotel 1\" is already exists", actualException.getMessage());
+        JsonAssert.assertJsonEquals(5L, hotelRepository.count());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void whenCreateHotelWithNameInsertedByAnotherInstance_thenReturnAlreadyExistsError() {
+
+        executeStatement("INSERT INTO booking_schema.hotels (name, version) VALUES ('Hotel of peer', 0)");
+
+        var request = CreateHotelRequest.builder()
+                .name("Hotel of peer")
+                .headline("New headline")
+                .city("New city")
+                .address("New address")
+                .distance(1F)
+                .build();
+
+        EntityAlreadyExists actualException = null;
+
+        try {
+            hotelService.save(request);
+        } catch (EntityAlreadyExists e) {
+            actualException = e;
+        }
+
+        JsonAssert.assertJsonEquals("Hotel with name \"Hotel of peer\" is already exists", actualException.getMessage());
+        JsonAssert.assertJsonEquals(6L, hotelRepository.count());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void whenRenameHotelToNameInsertedByAnotherInstance_thenReturnAlreadyExistsError() {
+
+        executeStatement("INSERT INTO booking_schema.hotels (name, version) VALUES ('Hotel of peer', 0)");
+
+        EntityAlreadyExists actualException = null;
+
+        try {
+            hotelService.updateById(2L, UpdateHotelRequest.builder().name("Hotel of peer").build());
+        } catch (EntityAlreadyExists e) {
+            actualException = e;
+        }
+
+        JsonAssert.assertJsonEquals("Hotel with name \"Hotel of peer\" is already exists", actualException.getMessage());
+        JsonAssert.assertJsonEquals("Hotel 2", hotelRepository.findById(2L).orElseThrow().getName());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void whenHotelVersionChangesDuringUpdate_thenUpdateIsRetriedWithoutLosingChange() {
+
+        var attempts = new AtomicInteger();
+        var retriesBefore = meterRegistry.counter("booking.optimistic.retries", "operation", "hotel.test").count();
+
+        var actualResult = optimisticRetryExecutor.execute("hotel.test", () -> {
+            var hotel = hotelRepository.findById(1L).orElseThrow();
+            if (attempts.incrementAndGet() == 1) {
+                var concurrentHotel = hotelRepository.findById(1L).orElseThrow();
+                concurrentHotel.setHeadline("Headline changed by another request");
+                hotelRepository.save(concurrentHotel);
+            }
+            hotel.setRating(4F);
+            return hotelRepository.save(hotel);
+        });
+
+        JsonAssert.assertJsonEquals(2, attempts.get());
+        JsonAssert.assertJsonEquals(4F, actualResult.getRating());
+        JsonAssert.assertJsonEquals("Headline changed by another request", actualResult.getHeadline());
+        JsonAssert.assertJsonEquals(retriesBefore + 1,
+                meterRegistry.counter("booking.optimistic.retries", "operation", "hotel.test").count());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void whenOptimisticLockFailsOnEveryAttempt_thenReturnConflictError() {
+
+        var failuresBefore = meterRegistry.counter("booking.optimistic.failures", "operation", "hotel.test").count();
+
+        ConcurrentUpdateException actualException = null;
+        try {
+            optimisticRetryExecutor.execute("hotel.test", () -> {
+                throw new ObjectOptimisticLockingFailureException(Hotel.class, 1L);
+            });
+        } catch (ConcurrentUpdateException e) {
+            actualException = e;
+        }
+
+        var actualResponse = exceptionHandlerController.concurrentUpdate(actualException);
+
+        JsonAssert.assertJsonEquals(HttpStatus.CONFLICT.value(), actualResponse.getStatusCode().value());
+        JsonAssert.assertJsonEquals(new ErrorResponse("Data was changed by another request, please try again"),
+                actualResponse.getBody());
+        JsonAssert.assertJsonEquals(failuresBefore + 1,
+                meterRegistry.counter("booking.optimistic.failures", "operation", "hotel.test").count());
+    }
 }
@@ -0,0 +1,103 @@
+package ru.example.booking.service;
+
+import net.javacrumbs.jsonunit.JsonAssert;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.example.booking.abstracts.ReservationAbstractTest;
+import ru.example.booking.dto.defaults.ErrorResponse;
+import ru.example.booking.exception.RoomBookingException;
+import ru.example.booking.listener.ReservationRangeConstraintInitializer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@TestPropertySource(properties = "app.booking.databaseConstraint.enable=true")
+public class ReservationDatabaseConstraintTest extends ReservationAbstractTest {
+
+    @AfterAll
+    public static void dropConstraint() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(postgreSQLContainer.getJdbcUrl(),
+                postgreSQLContainer.getUsername(),
+                postgreSQLContainer.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE booking_schema.reservations DROP CONSTRAINT IF EXISTS "
+                    + ReservationRangeConstraintInitializer.CONSTRAINT_NAME);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void whenConcurrentOverlappingBookings_thenOnlyOneIsAccepted() throws Exception {
+
+        int attempts = 8;
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(attempts);
+
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            var checkInDate = LocalDate.now().plusDays(40 + i % 2);
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    reservationService.booking(
+                            createUpsertReservationRequest(1L, checkInDate, checkInDate.plusDays(3)), "user1");
+                    return true;
+                } catch (RoomBookingException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int accepted = 0;
+        for (var result : results) {
+            if (result.get()) {
+                accepted++;
+            }
+        }
+        executor.shutdown();
+
+        var savedReservations = reservationRepository.findAllByRoomId(1L).stream()
+                .filter(reservation -> reservation.getCheckInDate().isAfter(LocalDate.now().plusDays(30)))
+                .count();
+        var bookedDates = roomService.bookedDatesOf(roomRepository.findById(1L).orElseThrow());
+
+        JsonAssert.assertJsonEquals(1, accepted);
+        JsonAssert.assertJsonEquals(1, savedReservations);
+        JsonAssert.assertJsonEquals(true, roomService.isBookedDates(bookedDates,
+                LocalDate.now().plusDays(41), LocalDate.now().plusDays(43)));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void whenUpdateReservationOntoBookedDates_thenReturnUnavailableError() {
+
+        var checkInDate = LocalDate.now().plusDays(50);
+        reservationService.booking(createUpsertReservationRequest(1L, checkInDate, checkInDate.plusDays(2)), "user1");
+        var movedReservation = reservationService.booking(
+                createUpsertReservationRequest(1L, checkInDate.plusDays(5), checkInDate.plusDays(6)), "user1");
+
+        ErrorResponse actualResult = null;
+        try {
+            reservationService.update(movedReservation.getId(),
+                    createUpsertReservationRequest(1L, checkInDate.plusDays(1), checkInDate.plusDays(3)), "user1");
+        } catch (RoomBookingException e) {
+            actualResult = new ErrorResponse(e.getMessage());
+        }
+
+        JsonAssert.assertJsonEquals(new ErrorResponse("This dates is unavailable"), actualResult);
+        JsonAssert.assertJsonEquals(movedReservation,
+                reservationService.findById(movedReservation.getId(), "user1"));
+    }
+}
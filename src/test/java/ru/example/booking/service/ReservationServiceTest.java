@@ -1,21 +1,39 @@
 package ru.example.booking.service;
 
 import net.javacrumbs.jsonunit.JsonAssert;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.awaitility.Awaitility;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import ru.example.booking.abstracts.ReservationAbstractTest;
+import ru.example.booking.concurrency.RoomBookingBatcher;
+import ru.example.booking.concurrency.RoomHoldRegistry;
+import ru.example.booking.dao.postrgres.BookingCalendar;
 import ru.example.booking.dao.postrgres.Reservation;
 import ru.example.booking.dao.postrgres.RoleType;
 import ru.example.booking.dao.postrgres.RoomDescription;
 import ru.example.booking.dto.defaults.ErrorResponse;
+import ru.example.booking.dto.hold.CreateHoldRequest;
 import ru.example.booking.dto.reservation.UpsertReservationRequest;
+import ru.example.booking.exception.EntityNotFoundException;
 import ru.example.booking.exception.RoomBookingException;
+import ru.example.booking.exception.RoomBusyException;
 import ru.example.booking.util.LocalDatesUtil;
 
+import java.time.Duration;
 import java.time.LocalDate;
-import java.util.TreeSet;
 
 public class ReservationServiceTest extends ReservationAbstractTest {
 
+    @Autowired
+    private RoomHoldRegistry roomHoldRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     public void whenBookingForAvailableDates_thenReturnReservation() {
 
@@ -56,6 +74,95 @@ public class ReservationServiceTest extends ReservationAbstractTest {
         JsonAssert.assertJsonEquals(expectedResultId, actualResult);
     }
 
+    @Test
+    public void whenDatesAreHeldByAnotherUser_thenBookingReturnsError() {
+
+        var hold = holdService.hold(CreateHoldRequest.builder()
+                .roomId(1L)
+                .checkInDate(LocalDatesUtil.localDateToStr(LocalDate.now().plusDays(20), DATE_PATTERN))
+                .checkOutDate(LocalDatesUtil.localDateToStr(LocalDate.now().plusDays(22), DATE_PATTERN))
+                .build(), "user2");
+
+        var reservationRequest = UpsertReservationRequest.builder()
+                .roomId(1L)
+                .checkInDate(LocalDatesUtil.localDateToStr(LocalDate.now().plusDays(21), DATE_PATTERN))
+                .checkOutDate(LocalDatesUtil.localDateToStr(LocalDate.now().plusDays(23), DATE_PATTERN))
+                .build();
+
+        var expectedResult = new ErrorResponse("This dates is on hold");
+
+        ErrorResponse actualResult = null;
+        try {
+            reservationService.booking(reservationRequest, "user1");
+        } catch (RoomBookingException e) {
+            actualResult = new ErrorResponse(e.getMessage());
+        } finally {
+            holdService.release(hold.getId(), "user2");
+        }
+
+        JsonAssert.assertJsonEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    public void whenHoldOfAnotherUserExpires_thenBookingIsAccepted() {
+
+        var checkInDate = LocalDate.now().plusDays(20);
+        var hold = roomHoldRegistry.hold(1L, checkInDate, checkInDate.plusDays(2), "user2", Duration.ofMillis(300));
+        var expiredBefore = meterRegistry.get("booking.hold.expired").counter().count();
+
+        var reservationRequest = createUpsertReservationRequest(1L, checkInDate.plusDays(1), checkInDate.plusDays(3));
+
+        ErrorResponse heldResult = null;
+        try {
+            reservationService.booking(reservationRequest, "user1");
+        } catch (RoomBookingException e) {
+            heldResult = new ErrorResponse(e.getMessage());
+        }
+        JsonAssert.assertJsonEquals(new ErrorResponse("This dates is on hold"), heldResult);
+
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(10))
+                .until(() -> meterRegistry.get("booking.hold.expired").counter().count() > expiredBefore);
+
+        JsonAssert.assertJsonEquals(true, roomHoldRegistry.find(hold.id()).isEmpty());
+        JsonAssert.assertJsonEquals(false, roomHoldRegistry.isHeld(1L, checkInDate, checkInDate.plusDays(2)));
+
+        var actualResult = reservationService.booking(reservationRequest, "user1");
+
+        JsonAssert.assertJsonEquals(LocalDatesUtil.localDateToStr(checkInDate.plusDays(1), DATE_PATTERN),
+                actualResult.getCheckInDate());
+    }
+
+    @Test
+    public void whenBookingWithOwnHold_thenHoldIsConvertedToReservation() {
+
+        var hold = holdService.hold(CreateHoldRequest.builder()
+                .roomId(1L)
+                .checkInDate(LocalDatesUtil.localDateToStr(LocalDate.now().plusDays(20), DATE_PATTERN))
+                .checkOutDate(LocalDatesUtil.localDateToStr(LocalDate.now().plusDays(22), DATE_PATTERN))
+                .build(), "user1");
+
+        var reservationRequest = UpsertReservationRequest.builder()
+                .roomId(1L)
+                .checkInDate(LocalDatesUtil.localDateToStr(LocalDate.now().plusDays(20), DATE_PATTERN))
+                .checkOutDate(LocalDatesUtil.localDateToStr(LocalDate.now().plusDays(22), DATE_PATTERN))
+                .holdId(hold.getId())
+                .build();
+
+        reservationService.booking(reservationRequest, "user1");
+
+        var expectedResult = new ErrorResponse("Hold is not found, ID is " + hold.getId());
+
+        ErrorResponse actualResult = null;
+        try {
+            holdService.release(hold.getId(), "user1");
+        } catch (EntityNotFoundException e) {
+            actualResult = new ErrorResponse(e.getMessage());
+        }
+
+        JsonAssert.assertJsonEquals(expectedResult, actualResult);
+    }
+
     @Test
     public void whenCancelBookedDates_thenReturnsEmptyBookedDatesListByRoom() {
 
@@ -78,9 +185,7 @@ public class ReservationServiceTest extends ReservationAbstractTest {
                 .build();
 
         var room = createDefaultRoomWithoutBookedDates(1, RoomDescription.STANDARD, false);
-        room.setBookedDates(
-                new TreeSet<>(roomService.getDateList(LocalDate.now().plusDays(10), LocalDate.now().plusDays(15)))
-        );
+        room.setBookedDates(BookingCalendar.of(LocalDate.now().plusDays(10), LocalDate.now().plusDays(15)));
 
         var expectedResult = reservationMapper.reservationToResponse(Reservation.builder()
                 .id(1L)
@@ -97,11 +202,26 @@ public class ReservationServiceTest extends ReservationAbstractTest {
     }
 
     @Test
-    public void whenUpdateReservationForUnavailableDates_thenReturnError() {
+    public void whenExtendReservationByOneNight_thenReturnUpdatedReservation() {
 
         var updatedReservation = UpsertReservationRequest.builder()
                 .roomId(1L)
                 .checkInDate(LocalDatesUtil.localDateToStr(LocalDate.now(), DATE_PATTERN))
+                .checkOutDate(LocalDatesUtil.localDateToStr(LocalDate.now().plusDays(2), DATE_PATTERN))
+                .build();
+
+        var actualResult = reservationService.update(1L, updatedReservation, "user1");
+
+        JsonAssert.assertJsonEquals(1L, actualResult.getId());
+        JsonAssert.assertJsonEquals(updatedReservation.getCheckOutDate(), actualResult.getCheckOutDate());
+    }
+
+    @Test
+    public void whenUpdateReservationForUnavailableDates_thenReturnError() {
+
+        var updatedReservation = UpsertReservationRequest.builder()
+                .roomId(2L)
+                .checkInDate(LocalDatesUtil.localDateToStr(LocalDate.now(), DATE_PATTERN))
                 .checkOutDate(LocalDatesUtil.localDateToStr(LocalDate.now().plusDays(15), DATE_PATTERN))
                 .build();
 
@@ -117,4 +237,38 @@ public class ReservationServiceTest extends ReservationAbstractTest {
 
         JsonAssert.assertJsonEquals(expectedResult, actualResponse);
     }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void whenBatchedBookingTimesOutBeforeCommit_thenReservationIsNotCreated() throws Exception {
+
+        var batcher = new RoomBookingBatcher(roomService, 32, Duration.ofMillis(500), Duration.ofMillis(50), 1,
+                new SimpleMeterRegistry());
+
+        var reservation = Reservation.builder()
+                .room(roomRepository.findById(1L).orElseThrow())
+                .user(userRepository.findByUsername("user1").orElseThrow())
+                .checkInDate(LocalDate.now().plusDays(30))
+                .checkOutDate(LocalDate.now().plusDays(32))
+                .build();
+
+        var expectedCount = reservationRepository.count();
+        var expectedResult = new ErrorResponse("Room is busy, please try again later");
+
+        ErrorResponse actualResult = null;
+        try {
+            batcher.book(reservation);
+        } catch (RoomBusyException e) {
+            actualResult = new ErrorResponse(e.getMessage());
+        }
+
+        Thread.sleep(1000);
+        batcher.shutdown();
+
+        JsonAssert.assertJsonEquals(expectedResult, actualResult);
+        JsonAssert.assertJsonEquals(expectedCount, reservationRepository.count());
+        JsonAssert.assertJsonEquals(true, roomService.isAvailableDates(
+                roomRepository.findById(1L).orElseThrow().getBookedDates(),
+                reservation.getCheckInDate(), reservation.getCheckOutDate()));
+    }
 }
@@ -1,21 +1,58 @@
 package ru.example.booking.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import net.javacrumbs.jsonunit.JsonAssert;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import ru.example.booking.abstracts.RoomAbstractTest;
+import ru.example.booking.cache.CacheInvalidationEvent;
+import ru.example.booking.cache.FilterQueryKey;
+import ru.example.booking.cache.RoomFilterCacheIndex;
+import ru.example.booking.concurrency.RoomLockManager;
+import ru.example.booking.configuration.properties.CacheProperties;
+import ru.example.booking.dao.postrgres.BookingCalendar;
 import ru.example.booking.dao.postrgres.Reservation;
 import ru.example.booking.dao.postrgres.RoleType;
 import ru.example.booking.dao.postrgres.RoomDescription;
 import ru.example.booking.dto.defaults.ErrorResponse;
+import ru.example.booking.dto.defaults.FindAllSettings;
+import ru.example.booking.dto.defaults.RoomFilter;
+import ru.example.booking.dto.room.FlexibleDatesRequest;
+import ru.example.booking.dto.room.RoomAvailabilityRequest;
+import ru.example.booking.dto.room.UpsertRoomRequest;
 import ru.example.booking.dto.user.CreateUserRequest;
+import ru.example.booking.exception.EntityAlreadyExists;
 import ru.example.booking.exception.RoomBookingException;
+import ru.example.booking.exception.RoomBusyException;
+import ru.example.booking.listener.BookingCalendarBackfill;
+import ru.example.booking.util.LocalDatesUtil;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class RoomServiceTest extends RoomAbstractTest {
 
+    @Autowired
+    private RoomFilterCacheIndex roomFilterCacheIndex;
+
+    @Autowired
+    private RoomLockManager roomLockManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BookingCalendarBackfill bookingCalendarBackfill;
+
     @Test
     public void whenBookAvailableDates_thenReturnUpdatedRoom() throws Exception {
 
@@ -30,11 +67,7 @@ public class RoomServiceTest extends RoomAbstractTest {
         var bookingDayTo = bookingDayFrom.plusDays(1);
 
         var room = createStandardRoomWithoutBookedDates(1, false);
-        var bookedDates = new TreeSet<>(Set.of(
-                bookingDayFrom,
-                bookingDayTo
-        ));
-        room.setBookedDates(bookedDates);
+        room.setBookedDates(BookingCalendar.of(bookingDayFrom, bookingDayTo));
 
         var expectedResponse = roomMapper.roomToSimpleResponse(room);
 
@@ -131,12 +164,9 @@ public class RoomServiceTest extends RoomAbstractTest {
     @Test
     public void whenCheckForAvailabilityDates_thenReturnTrue() {
 
-        var datesToBeChecked = roomService.getDateList(LocalDate.now(), LocalDate.now().plusDays(10));
-
-        var existedDates = roomService.getDateList(LocalDate.now().plusDays(11),
-                LocalDate.now().plusDays(15));
+        var existedDates = BookingCalendar.of(LocalDate.now().plusDays(11), LocalDate.now().plusDays(15));
 
-        var actualResult = roomService.isAvailableDates(existedDates, datesToBeChecked);
+        var actualResult = roomService.isAvailableDates(existedDates, LocalDate.now(), LocalDate.now().plusDays(10));
 
         JsonAssert.assertJsonEquals(true, actualResult);
     }
@@ -144,12 +174,9 @@ public class RoomServiceTest extends RoomAbstractTest {
     @Test
     public void whenCheckForAvailabilityDates_thenReturnFalse() {
 
-        var datesToBeChecked = roomService.getDateList(LocalDate.now(), LocalDate.now().plusDays(10));
+        var existedDates = BookingCalendar.of(LocalDate.now().plusDays(9), LocalDate.now().plusDays(15));
 
-        var existedDates = roomService.getDateList(LocalDate.now().plusDays(9),
-                LocalDate.now().plusDays(15));
-
-        var actualResult = roomService.isAvailableDates(existedDates, datesToBeChecked);
+        var actualResult = roomService.isAvailableDates(existedDates, LocalDate.now(), LocalDate.now().plusDays(10));
 
         JsonAssert.assertJsonEquals(false, actualResult);
     }
@@ -157,13 +184,10 @@ public class RoomServiceTest extends RoomAbstractTest {
     @Test
     public void whenCheckIsBookedDates_thenReturnTrue() {
 
-        var datesToBeChecked = roomService.getDateList(LocalDate.now().plusDays(9),
-                LocalDate.now().plusDays(10));
-
-        var existedDates = roomService.getDateList(LocalDate.now().plusDays(5),
-                LocalDate.now().plusDays(12));
+        var existedDates = BookingCalendar.of(LocalDate.now().plusDays(5), LocalDate.now().plusDays(12));
 
-        var actualResult = roomService.isBookedDates(existedDates, datesToBeChecked);
+        var actualResult = roomService.isBookedDates(existedDates, LocalDate.now().plusDays(9),
+                LocalDate.now().plusDays(10));
 
         JsonAssert.assertJsonEquals(true, actualResult);
     }
@@ -171,14 +195,341 @@ public class RoomServiceTest extends RoomAbstractTest {
     @Test
     public void whenCheckIsBookedDates_thenReturnFalse() {
 
-        var datesToBeChecked = roomService.getDateList(LocalDate.now().plusDays(9),
+        var existedDates = BookingCalendar.of(LocalDate.now(), LocalDate.now().plusDays(12));
+
+        var actualResult = roomService.isBookedDates(existedDates, LocalDate.now().plusDays(9),
                 LocalDate.now().plusDays(15));
 
-        var existedDates = roomService.getDateList(LocalDate.now(),
-                LocalDate.now().plusDays(12));
+        JsonAssert.assertJsonEquals(false, actualResult);
+    }
+
+    @Test
+    public void whenBookAndReleaseLongStay_thenCalendarKeepsOtherDates() {
+
+        var bookedDates = BookingCalendar.of(LocalDate.now(), LocalDate.now().plusDays(199));
 
-        var actualResult = roomService.isBookedDates(existedDates, datesToBeChecked);
+        bookedDates.release(LocalDate.now().plusDays(60), LocalDate.now().plusDays(130));
 
-        JsonAssert.assertJsonEquals(false, actualResult);
+        var restoredDates = BookingCalendar.fromBytes(bookedDates.toBytes());
+
+        JsonAssert.assertJsonEquals(129, restoredDates.size());
+        JsonAssert.assertJsonEquals(true, restoredDates.isBooked(LocalDate.now(), LocalDate.now().plusDays(59)));
+        JsonAssert.assertJsonEquals(true, restoredDates.isFree(LocalDate.now().plusDays(60), LocalDate.now().plusDays(130)));
+        JsonAssert.assertJsonEquals(true, restoredDates.isBooked(LocalDate.now().plusDays(131), LocalDate.now().plusDays(199)));
+    }
+
+    @Test
+    public void whenCheckOverlappingReservations_thenOnlyIntersectingRangeIsRejected() {
+
+        var room = createStandardRoomWithoutBookedDates(1, false);
+        room.setReservations(List.of(
+                Reservation.builder().checkInDate(LocalDate.now().plusDays(40)).checkOutDate(LocalDate.now().plusDays(70)).build(),
+                Reservation.builder().checkInDate(LocalDate.now()).checkOutDate(LocalDate.now().plusDays(30)).build()
+        ));
+
+        JsonAssert.assertJsonEquals(false, roomService.hasOverlappingReservation(room,
+                LocalDate.now().plusDays(31), LocalDate.now().plusDays(39)));
+        JsonAssert.assertJsonEquals(true, roomService.hasOverlappingReservation(room,
+                LocalDate.now().plusDays(31), LocalDate.now().plusDays(40)));
+        JsonAssert.assertJsonEquals(true, roomService.hasOverlappingReservation(room,
+                LocalDate.now().plusDays(30), LocalDate.now().plusDays(35)));
+    }
+
+    @Test
+    public void whenAddReservationsBatch_thenOverlappingRequestIsRejectedAlone() {
+
+        var outcomes = roomService.addReservations(1L, List.of(
+                Reservation.builder().checkInDate(LocalDate.now().plusDays(20)).checkOutDate(LocalDate.now().plusDays(22)).build(),
+                Reservation.builder().checkInDate(LocalDate.now().plusDays(21)).checkOutDate(LocalDate.now().plusDays(25)).build(),
+                Reservation.builder().checkInDate(LocalDate.now().plusDays(23)).checkOutDate(LocalDate.now().plusDays(24)).build()
+        ));
+
+        JsonAssert.assertJsonEquals(true, outcomes.get(0).isAccepted());
+        JsonAssert.assertJsonEquals("This dates is unavailable", outcomes.get(1).rejection().getMessage());
+        JsonAssert.assertJsonEquals(true, outcomes.get(2).isAccepted());
+
+        var bookedDates = roomService.findRoomById(1L).getBookedDates();
+
+        JsonAssert.assertJsonEquals(5, bookedDates.size());
+        JsonAssert.assertJsonEquals(true, bookedDates.isBooked(LocalDate.now().plusDays(20), LocalDate.now().plusDays(24)));
+    }
+
+    @Test
+    public void whenFindFlexibleDates_thenRoomsAreOrderedByEarliestFreeWindow() {
+
+        var bookedRoom = roomService.findRoomById(1L);
+        bookedRoom.setBookedDates(BookingCalendar.of(LocalDate.now().plusDays(1), LocalDate.now().plusDays(3)));
+        roomRepository.save(bookedRoom);
+
+        var request = FlexibleDatesRequest.builder()
+                .fromDate(LocalDatesUtil.localDateToStr(LocalDate.now().plusDays(1), DATE_PATTERN))
+                .toDate(LocalDatesUtil.localDateToStr(LocalDate.now().plusDays(10), DATE_PATTERN))
+                .nights(3)
+                .pageNum(2)
+                .pageSize(2)
+                .build();
+
+        var actualResult = roomService.findFlexibleDates(request);
+
+        JsonAssert.assertJsonEquals(1, actualResult.getRooms().size());
+        JsonAssert.assertJsonEquals(1L, actualResult.getRooms().get(0).getRoom().getId());
+        JsonAssert.assertJsonEquals(LocalDatesUtil.localDateToStr(LocalDate.now().plusDays(4), DATE_PATTERN),
+                actualResult.getRooms().get(0).getCheckInDate());
+        JsonAssert.assertJsonEquals(LocalDatesUtil.localDateToStr(LocalDate.now().plusDays(6), DATE_PATTERN),
+                actualResult.getRooms().get(0).getCheckOutDate());
+    }
+
+    @Test
+    public void whenBookRoom_thenOnlyDependentFilterEntriesAreEvicted() {
+
+        var filterCache = cacheManager.getCache(CacheProperties.CacheNames.ALL_ROOMS_WITH_FILTER);
+        filterCache.clear();
+
+        var bookedHotelSettings = FindAllSettings.builder()
+                .roomFilter(RoomFilter.builder().hotelId(1L).build())
+                .build();
+        var otherHotelSettings = FindAllSettings.builder()
+                .roomFilter(RoomFilter.builder().hotelId(2L).build())
+                .build();
+
+        roomService.findAll(bookedHotelSettings);
+        roomService.findAll(otherHotelSettings);
+
+        roomService.addReservations(1L, List.of(
+                Reservation.builder().checkInDate(LocalDate.now().plusDays(20)).checkOutDate(LocalDate.now().plusDays(22)).build()
+        ));
+
+        JsonAssert.assertJsonEquals(true, filterCache.get(FilterQueryKey.forRooms(bookedHotelSettings, DATE_PATTERN)) == null);
+        JsonAssert.assertJsonEquals(true, filterCache.get(FilterQueryKey.forRooms(otherHotelSettings, DATE_PATTERN)) != null);
+    }
+
+    @Test
+    public void whenRoomChangesBeforeFilterPageIsPut_thenPageIsNotCached() {
+
+        var filterCache = cacheManager.getCache(CacheProperties.CacheNames.ALL_ROOMS_WITH_FILTER);
+
+        var changedSettings = FindAllSettings.builder()
+                .roomFilter(RoomFilter.builder().hotelId(1L).build())
+                .build();
+        var untouchedSettings = FindAllSettings.builder()
+                .roomFilter(RoomFilter.builder().hotelId(2L).build())
+                .build();
+        var changedKey = FilterQueryKey.forRooms(changedSettings, DATE_PATTERN);
+        var untouchedKey = FilterQueryKey.forRooms(untouchedSettings, DATE_PATTERN);
+        var page = roomService.findAll();
+
+        roomFilterCacheIndex.register(changedKey, page, roomFilterCacheIndex.generation());
+        roomFilterCacheIndex.evictRoomChangeLocally(1L, 1L);
+        filterCache.put(changedKey, page);
+
+        roomFilterCacheIndex.register(untouchedKey, page, roomFilterCacheIndex.generation());
+        filterCache.put(untouchedKey, page);
+
+        JsonAssert.assertJsonEquals(true, filterCache.get(changedKey) == null);
+        JsonAssert.assertJsonEquals(true, filterCache.get(untouchedKey) != null);
+    }
+
+    @Test
+    public void whenFindAllWithEquivalentFilters_thenSameCacheKeyIsUsed() {
+
+        var checkIn = LocalDate.now().plusDays(5);
+        var checkOut = LocalDate.now().plusDays(7);
+
+        var settings = FindAllSettings.builder()
+                .roomFilter(RoomFilter.builder()
+                        .minPrice(new BigDecimal("1.00"))
+                        .checkInDate(LocalDatesUtil.localDateToStr(checkIn, DATE_PATTERN))
+                        .checkOutDate(LocalDatesUtil.localDateToStr(checkOut, DATE_PATTERN))
+                        .build())
+                .build();
+        var equivalentSettings = FindAllSettings.builder()
+                .roomFilter(RoomFilter.builder()
+                        .minPrice(BigDecimal.ONE)
+                        .checkInDate(LocalDatesUtil.localDateToStr(checkIn, DATE_PATTERN))
+                        .checkOutDate(LocalDatesUtil.localDateToStr(checkOut, DATE_PATTERN))
+                        .build())
+                .build();
+        var expectedFilter = settings.getRoomFilter().toString();
+
+        roomService.findAll(settings);
+
+        JsonAssert.assertJsonEquals(expectedFilter, settings.getRoomFilter().toString());
+        JsonAssert.assertJsonEquals(true, FilterQueryKey.forRooms(settings, DATE_PATTERN)
+                .equals(FilterQueryKey.forRooms(equivalentSettings, DATE_PATTERN)));
+    }
+
+    @Test
+    public void whenPeerEvictsRoom_thenLocalEntryIsDropped() {
+
+        var roomCache = cacheManager.getCache(CacheProperties.CacheNames.ROOM_BY_ID);
+
+        roomService.findById(1L);
+        roomService.findById(2L);
+
+        cacheInvalidationListener.listenInvalidation(CacheInvalidationEvent.builder()
+                .origin("peer-instance")
+                .type(CacheInvalidationEvent.Type.EVICT)
+                .cacheName(CacheProperties.CacheNames.ROOM_BY_ID)
+                .key("1")
+                .keyType(CacheInvalidationEvent.KeyType.LONG)
+                .build());
+
+        JsonAssert.assertJsonEquals(true, roomCache.get(1L) == null);
+        JsonAssert.assertJsonEquals(true, roomCache.get(2L) != null);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void whenCreateRoomWithNameInsertedByAnotherInstance_thenReturnAlreadyExistsError() {
+
+        executeStatement("INSERT INTO booking_schema.rooms (name, version, hotel_id) VALUES ('Room of peer', 0, 1)");
+
+        var request = UpsertRoomRequest.builder()
+                .name("Room of peer")
+                .hotelId(1L)
+                .description(RoomDescription.STANDARD)
+                .number(10)
+                .price(BigDecimal.TEN)
+                .capacity(2)
+                .build();
+
+        EntityAlreadyExists actualException = null;
+
+        try {
+            roomService.save(request);
+        } catch (EntityAlreadyExists e) {
+            actualException = e;
+        }
+
+        JsonAssert.assertJsonEquals("Room with name \"Room of peer\" is already exists", actualException.getMessage());
+        JsonAssert.assertJsonEquals(6L, roomRepository.count());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void whenRenameRoomToNameInsertedByAnotherInstance_thenReturnAlreadyExistsError() {
+
+        executeStatement("INSERT INTO booking_schema.rooms (name, version, hotel_id) VALUES ('Room of peer', 0, 1)");
+
+        EntityAlreadyExists actualException = null;
+
+        try {
+            roomService.updateById(2L, UpsertRoomRequest.builder().name("Room of peer").build());
+        } catch (EntityAlreadyExists e) {
+            actualException = e;
+        }
+
+        JsonAssert.assertJsonEquals("Room with name \"Room of peer\" is already exists", actualException.getMessage());
+        JsonAssert.assertJsonEquals("Room 2", roomRepository.findById(2L).orElseThrow().getName());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void whenConcurrentReservationsForSameRoom_thenNoneIsLostAndContentionIsRecorded() throws Exception {
+
+        int bookings = 8;
+        var room = roomRepository.findById(1L).orElseThrow();
+        var contendedBefore = meterRegistry.get("booking.room.lock.contended").counter().count();
+        var waitsBefore = meterRegistry.get("booking.room.lock.wait").timer().count();
+
+        var executor = Executors.newFixedThreadPool(bookings);
+        var ready = new CountDownLatch(bookings);
+        List<Future<?>> results = new ArrayList<>();
+
+        roomLockManager.runLocked(1L, () -> {
+            for (int i = 0; i < bookings; i++) {
+                var checkInDate = LocalDate.now().plusDays(10L + i * 3L);
+                results.add(executor.submit(() -> {
+                    ready.countDown();
+                    roomService.addReservation(Reservation.builder()
+                            .room(room)
+                            .checkInDate(checkInDate)
+                            .checkOutDate(checkInDate.plusDays(1))
+                            .build());
+                }));
+            }
+            try {
+                ready.await();
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        for (var result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        var savedRoom = roomRepository.findById(1L).orElseThrow();
+
+        JsonAssert.assertJsonEquals(bookings, savedRoom.getReservations().size());
+        JsonAssert.assertJsonEquals(bookings * 2, savedRoom.getBookedDates().size());
+        JsonAssert.assertJsonEquals(true,
+                meterRegistry.get("booking.room.lock.contended").counter().count() > contendedBefore);
+        JsonAssert.assertJsonEquals(true,
+                meterRegistry.get("booking.room.lock.wait").timer().count() > waitsBefore);
+    }
+
+    @Test
+    public void whenRoomLockIsNotAcquiredInTime_thenRoomBusyErrorIsThrown() throws Exception {
+
+        var registry = new SimpleMeterRegistry();
+        var lockManager = new RoomLockManager(16, Duration.ofMillis(50), registry);
+        var locked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        var holder = Executors.newSingleThreadExecutor();
+        holder.submit(() -> lockManager.runLocked(1L, () -> {
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        locked.await();
+
+        ErrorResponse actualResult = null;
+        try {
+            lockManager.runLocked(1L, () -> { });
+        } catch (RoomBusyException e) {
+            actualResult = new ErrorResponse(e.getMessage());
+        } finally {
+            release.countDown();
+            holder.shutdown();
+        }
+
+        JsonAssert.assertJsonEquals(new ErrorResponse("Room is busy, please try again later"), actualResult);
+        JsonAssert.assertJsonEquals(1.0, registry.get("booking.room.lock.timeouts").counter().count());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void whenRoomCalendarColumnIsEmpty_thenCalendarIsRebuiltFromReservations() {
+
+        var checkInDate = LocalDate.now().plusDays(10);
+        roomService.addReservation(Reservation.builder()
+                .room(roomRepository.findById(1L).orElseThrow())
+                .checkInDate(checkInDate)
+                .checkOutDate(checkInDate.plusDays(1))
+                .build());
+        executeStatement("UPDATE booking_schema.rooms SET booked_calendar = NULL WHERE id = 1");
+
+        JsonAssert.assertJsonEquals(List.of(1L), roomRepository.findAllIdsWithoutBookedDates());
+        JsonAssert.assertJsonEquals(2, roomRepository.findById(1L).orElseThrow().getBookedDates().size());
+
+        var availability = roomService.checkAvailability(RoomAvailabilityRequest.builder()
+                .roomIds(List.of(1L))
+                .checkInDate(LocalDatesUtil.localDateToStr(checkInDate, DATE_PATTERN))
+                .checkOutDate(LocalDatesUtil.localDateToStr(checkInDate.plusDays(1), DATE_PATTERN))
+                .build());
+        JsonAssert.assertJsonEquals(false, availability.getRooms().get(0).isAvailable());
+
+        bookingCalendarBackfill.backfill();
+
+        JsonAssert.assertJsonEquals(List.of(), roomRepository.findAllIdsWithoutBookedDates());
+        JsonAssert.assertJsonEquals(BookingCalendar.of(checkInDate, checkInDate.plusDays(1)),
+                roomRepository.findById(1L).orElseThrow().getBookedDates());
     }
 }
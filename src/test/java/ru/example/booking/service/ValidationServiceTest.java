@@ -2,12 +2,20 @@ package ru.example.booking.service;
 
 import net.javacrumbs.jsonunit.JsonAssert;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import ru.example.booking.abstracts.AbstractMainTest;
 import ru.example.booking.dto.defaults.ErrorResponse;
+import ru.example.booking.security.AppUserPrincipal;
+import ru.example.booking.security.AuthenticatedUserResolver;
 
 public class ValidationServiceTest extends AbstractMainTest {
 
+    @Autowired
+    private AuthenticatedUserResolver authenticatedUserResolver;
+
     @Test
     public void whenCheckTheCredentialsWithAdmin_thenReturnNothing() throws Exception {
         var adminRequester = createUserWithAdminRole(1);
@@ -40,4 +48,22 @@ public class ValidationServiceTest extends AbstractMainTest {
 
         JsonAssert.assertJsonEquals(expectedResult, actualResult);
     }
+
+    @Test
+    public void whenRequesterIsAuthenticatedPrincipal_thenResolveItWithoutUserLookup() throws Exception {
+        var principal = new AppUserPrincipal(createUserWithAdminRole(42));
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities()));
+
+        try {
+            JsonAssert.assertJsonEquals(0L, userRepository.count());
+
+            var requester = authenticatedUserResolver.resolve("user42");
+
+            JsonAssert.assertJsonEquals(42L, requester.id());
+            validationService.isValidAction(requester, createUserWithUserRole(3));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
 }